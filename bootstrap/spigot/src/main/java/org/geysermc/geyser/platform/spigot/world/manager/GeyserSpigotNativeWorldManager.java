@@ -25,13 +25,10 @@
 
 package org.geysermc.geyser.platform.spigot.world.manager;
 
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
 import org.geysermc.geyser.adapters.spigot.SpigotAdapters;
 import org.geysermc.geyser.adapters.spigot.SpigotWorldAdapter;
-import org.geysermc.geyser.level.block.BlockStateValues;
-import org.geysermc.geyser.session.GeyserSession;
 import org.jetbrains.annotations.Nullable;
 
 public class GeyserSpigotNativeWorldManager extends GeyserSpigotWorldManager {
@@ -43,12 +40,8 @@ public class GeyserSpigotNativeWorldManager extends GeyserSpigotWorldManager {
     }
 
     @Override
-    public int getBlockAt(GeyserSession session, int x, int y, int z) {
-        Player player = Bukkit.getPlayer(session.getPlayerEntity().getUsername());
-        if (player == null) {
-            return BlockStateValues.JAVA_AIR_ID;
-        }
-        return adapter.getBlockAt(player.getWorld(), x, y, z);
+    protected int getBlockAt(World world, int x, int y, int z) {
+        return adapter.getBlockAt(world, x, y, z);
     }
 
     @Nullable
@@ -32,12 +32,14 @@ import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.geysermc.erosion.bukkit.BukkitLecterns;
 import org.geysermc.erosion.bukkit.BukkitUtils;
 import org.geysermc.erosion.bukkit.PickBlockUtils;
 import org.geysermc.erosion.bukkit.SchedulerUtils;
+import org.geysermc.erosion.util.BlockPositionIterator;
 import org.geysermc.geyser.level.GameRule;
 import org.geysermc.geyser.level.WorldManager;
 import org.geysermc.geyser.level.block.BlockStateValues;
@@ -48,7 +50,9 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The base world manager to use when there is no supported NMS revision
@@ -56,6 +60,7 @@ import java.util.concurrent.CompletableFuture;
 public class GeyserSpigotWorldManager extends WorldManager {
     private final Plugin plugin;
     private final BukkitLecterns lecterns;
+    private final Map<BlockData, Integer> blockDataIds = new ConcurrentHashMap<>();
 
     public GeyserSpigotWorldManager(Plugin plugin) {
         this.plugin = plugin;
@@ -64,11 +69,28 @@ public class GeyserSpigotWorldManager extends WorldManager {
 
     @Override
     public int getBlockAt(GeyserSession session, int x, int y, int z) {
-        Player bukkitPlayer;
-        if ((bukkitPlayer = Bukkit.getPlayer(session.getPlayerEntity().getUsername())) == null) {
+        World world = getWorld(session);
+        if (world == null) {
             return BlockStateValues.JAVA_AIR_ID;
         }
-        World world = bukkitPlayer.getWorld();
+        return getBlockAt(world, x, y, z);
+    }
+
+    @Override
+    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
+        int[] blocks = new int[iter.getMaxIterations()];
+        // Only look up the player once for all blocks
+        World world = getWorld(session);
+        if (world == null) {
+            return blocks;
+        }
+        for (; iter.hasNext(); iter.next()) {
+            blocks[iter.getIteration()] = getBlockAt(world, iter.getX(), iter.getY(), iter.getZ());
+        }
+        return blocks;
+    }
+
+    protected int getBlockAt(World world, int x, int y, int z) {
         if (!world.isChunkLoaded(x >> 4, z >> 4)) {
             // If the chunk isn't loaded, how could we even be here?
             return BlockStateValues.JAVA_AIR_ID;
@@ -77,14 +99,32 @@ public class GeyserSpigotWorldManager extends WorldManager {
         return getBlockNetworkId(world.getBlockAt(x, y, z));
     }
 
+    /**
+     * @return the world of the session's Java player, or null if they are not online
+     */
+    protected @Nullable World getWorld(GeyserSession session) {
+        Player bukkitPlayer = Bukkit.getPlayer(session.getPlayerEntity().getUuid());
+        return bukkitPlayer == null ? null : bukkitPlayer.getWorld();
+    }
+
     public int getBlockNetworkId(Block block) {
         if (SchedulerUtils.FOLIA && !Bukkit.isOwnedByCurrentRegion(block)) {
             // Terrible behavior, but this is basically what's always been happening behind the scenes anyway.
-            CompletableFuture<String> blockData = new CompletableFuture<>();
-            Bukkit.getRegionScheduler().execute(this.plugin, block.getLocation(), () -> blockData.complete(block.getBlockData().getAsString()));
-            return BlockRegistries.JAVA_IDENTIFIERS.getOrDefault(blockData.join(), BlockStateValues.JAVA_AIR_ID);
+            CompletableFuture<BlockData> blockData = new CompletableFuture<>();
+            Bukkit.getRegionScheduler().execute(this.plugin, block.getLocation(), () -> blockData.complete(block.getBlockData()));
+            return getBlockNetworkId(blockData.join());
+        }
+        return getBlockNetworkId(block.getBlockData());
+    }
+
+    private int getBlockNetworkId(BlockData blockData) {
+        // Block data equality is that of the underlying block state, so this skips the string round trip after the first time
+        Integer networkId = this.blockDataIds.get(blockData);
+        if (networkId == null) {
+            networkId = BlockRegistries.JAVA_IDENTIFIERS.getOrDefault(blockData.getAsString(), BlockStateValues.JAVA_AIR_ID);
+            this.blockDataIds.put(blockData, networkId);
         }
-        return BlockRegistries.JAVA_IDENTIFIERS.getOrDefault(block.getBlockData().getAsString(), BlockStateValues.JAVA_AIR_ID);
+        return networkId;
     }
 
     @Override
@@ -71,15 +71,20 @@ import org.geysermc.geyser.entity.EntityDefinitions;
 import org.geysermc.geyser.erosion.UnixSocketClientListener;
 import org.geysermc.geyser.event.GeyserEventBus;
 import org.geysermc.geyser.extension.GeyserExtensionManager;
+import org.geysermc.geyser.level.MapCanvasStore;
 import org.geysermc.geyser.level.WorldManager;
+import org.geysermc.geyser.level.chunk.EncodedChunkCache;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
 import org.geysermc.geyser.network.ConnectorServerEventHandler;
 import org.geysermc.geyser.pack.ResourcePack;
+import org.geysermc.geyser.pack.ResourcePackChunkSender;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.PendingMicrosoftAuthentication;
 import org.geysermc.geyser.session.SessionManager;
+import org.geysermc.geyser.session.auth.LoginCryptoExecutor;
 import org.geysermc.geyser.skin.FloodgateSkinUploader;
 import org.geysermc.geyser.skin.ProvidedSkins;
 import org.geysermc.geyser.skin.SkinProvider;
@@ -144,6 +149,25 @@ public class GeyserImpl implements GeyserApi {
 
     private UnixSocketClientListener erosionUnixListener;
 
+    /**
+     * Shared between all sessions, if enabled in the config.
+     */
+    private EncodedChunkCache encodedChunkCache;
+    /**
+     * Holds chunks shared between sessions in the same world, if enabled in the config.
+     */
+    private SharedChunkStore sharedChunkStore;
+    /**
+     * Holds the contents of maps, shared between sessions.
+     */
+    private MapCanvasStore mapCanvasStore;
+
+    private ResourcePackChunkSender resourcePackChunkSender;
+    /**
+     * Verifies Bedrock logins and sets up encryption away from the network threads.
+     */
+    private LoginCryptoExecutor loginCryptoExecutor;
+
     private volatile boolean shuttingDown = false;
 
     private ScheduledExecutorService scheduledThread;
@@ -265,6 +289,8 @@ public class GeyserImpl implements GeyserApi {
         SkinProvider.registerCacheImageTask(this);
 
         ResourcePack.loadPacks();
+        this.resourcePackChunkSender = new ResourcePackChunkSender(config.getResourcePackUploadLimit());
+        this.loginCryptoExecutor = new LoginCryptoExecutor(config.getMaxPendingLogins());
 
         if (platformType != PlatformType.STANDALONE && config.getRemote().address().equals("auto")) {
             // Set the remote address to localhost since that is where we are always connecting
@@ -305,6 +331,14 @@ public class GeyserImpl implements GeyserApi {
             logger.debug("Epoll is not available; Erosion's Unix socket handling will not work.");
         }
 
+        if (config.getSharedChunkCacheSize() > 0) {
+            this.encodedChunkCache = new EncodedChunkCache(config.getSharedChunkCacheSize());
+        } else {
+            this.encodedChunkCache = null;
+        }
+        this.sharedChunkStore = config.isSharedWorldView() ? new SharedChunkStore() : null;
+        this.mapCanvasStore = new MapCanvasStore();
+
         CooldownUtils.setDefaultShowCooldown(config.getShowCooldown());
         DimensionUtils.changeBedrockNetherId(config.isAboveBedrockNetherBuilding()); // Apply End dimension ID workaround to Nether
 
@@ -586,6 +620,9 @@ public class GeyserImpl implements GeyserApi {
             this.erosionUnixListener.close();
         }
 
+        resourcePackChunkSender.shutdown();
+        loginCryptoExecutor.shutdown();
+        SkinProvider.shutdown();
         ResourcePack.PACKS.clear();
 
         this.eventBus.fire(new GeyserShutdownEvent(this.extensionManager, this.eventBus));
@@ -26,6 +26,7 @@
 package org.geysermc.geyser.configuration;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nukkitx.protocol.bedrock.data.PacketCompressionAlgorithm;
 import org.geysermc.geyser.GeyserLogger;
 import org.geysermc.geyser.api.network.BedrockListener;
 import org.geysermc.geyser.api.network.RemoteServer;
@@ -121,6 +122,12 @@ public interface GeyserConfiguration {
 
         int getCompressionLevel();
 
+        int getCompressionThreshold();
+
+        PacketCompressionAlgorithm getCompressionAlgorithm();
+
+        boolean isAdaptiveCompression();
+
         boolean isEnableProxyProtocol();
 
         List<String> getProxyProtocolWhitelistedIPs();
@@ -182,6 +189,20 @@ public interface GeyserConfiguration {
 
     boolean isDisableCompression();
 
+    boolean isUseClientChunkCache();
+
+    int getSharedChunkCacheSize();
+
+    boolean isCompactChunkCache();
+
+    boolean isSharedWorldView();
+
+    boolean isUpstreamPacketBatching();
+
+    int getResourcePackUploadLimit();
+
+    int getMaxPendingLogins();
+
     int getConfigVersion();
 
     static void checkGeyserConfiguration(GeyserConfiguration geyserConfig, GeyserLogger geyserLogger) {
@@ -32,6 +32,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.nukkitx.protocol.bedrock.data.PacketCompressionAlgorithm;
 import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.geyser.GeyserImpl;
@@ -214,6 +215,24 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
             return Math.max(-1, Math.min(compressionLevel, 9));
         }
 
+        @JsonProperty("compression-threshold")
+        private int compressionThreshold = 512;
+
+        public int getCompressionThreshold() {
+            return Math.max(0, Math.min(compressionThreshold, 65535));
+        }
+
+        @JsonProperty("compression-algorithm")
+        private String compressionAlgorithm = "zlib";
+
+        public PacketCompressionAlgorithm getCompressionAlgorithm() {
+            return "snappy".equalsIgnoreCase(compressionAlgorithm) ? PacketCompressionAlgorithm.SNAPPY : PacketCompressionAlgorithm.ZLIB;
+        }
+
+        @Getter
+        @JsonProperty("adaptive-compression")
+        private boolean adaptiveCompression = false;
+
         @Getter
         @JsonProperty("enable-proxy-protocol")
         private boolean enableProxyProtocol = false;
@@ -335,6 +354,27 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("disable-compression")
     private boolean isDisableCompression = true;
 
+    @JsonProperty("use-client-chunk-cache")
+    private boolean useClientChunkCache = true;
+
+    @JsonProperty("shared-chunk-cache-size")
+    private int sharedChunkCacheSize = 0;
+
+    @JsonProperty("compact-chunk-cache")
+    private boolean compactChunkCache = false;
+
+    @JsonProperty("shared-world-view")
+    private boolean sharedWorldView = false;
+
+    @JsonProperty("upstream-packet-batching")
+    private boolean upstreamPacketBatching = false;
+
+    @JsonProperty("resource-pack-upload-limit")
+    private int resourcePackUploadLimit = 0;
+
+    @JsonProperty("max-pending-logins")
+    private int maxPendingLogins = 128;
+
     @JsonProperty("config-version")
     private int configVersion = 0;
 
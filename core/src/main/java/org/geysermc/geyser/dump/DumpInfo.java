@@ -42,8 +42,10 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.GeyserApi;
 import org.geysermc.geyser.api.extension.Extension;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.erosion.GeyserboundPacketHandlerImpl;
 import org.geysermc.geyser.network.GameProtocol;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.UpstreamSession;
 import org.geysermc.geyser.text.AsteriskSerializer;
 import org.geysermc.geyser.util.CpuUtils;
 import org.geysermc.geyser.util.FileUtils;
@@ -76,6 +78,11 @@ public class DumpInfo {
     private final Object2IntMap<DeviceOs> userPlatforms;
     private final HashInfo hashInfo;
     private final RamInfo ramInfo;
+    private final PacketBatchInfo packetBatchInfo;
+    /**
+     * How long Erosion block lookups have taken to be answered
+     */
+    private final Map<String, Long> erosionLookupLatency;
     private LogsInfo logsInfo;
     private final BootstrapDumpInfo bootstrapInfo;
     private final FlagsInfo flagsInfo;
@@ -114,6 +121,8 @@ public class DumpInfo {
         this.hashInfo = new HashInfo(md5Hash, sha256Hash);
 
         this.ramInfo = new DumpInfo.RamInfo();
+        this.packetBatchInfo = new PacketBatchInfo();
+        this.erosionLookupLatency = GeyserboundPacketHandlerImpl.LOOKUP_LATENCY.toMap();
 
         if (addLog) {
             this.logsInfo = new LogsInfo();
@@ -266,11 +275,48 @@ public class DumpInfo {
         private final long free;
         private final long total;
         private final long max;
+        /**
+         * Estimated memory used by all session chunk caches
+         */
+        private final long chunkCache;
 
         RamInfo() {
             this.free = Runtime.getRuntime().freeMemory() / MEGABYTE;
             this.total = Runtime.getRuntime().totalMemory() / MEGABYTE;
             this.max = Runtime.getRuntime().maxMemory() / MEGABYTE;
+
+            long chunkCache = 0;
+            for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
+                chunkCache += session.getChunkCache().getMemoryUsage();
+            }
+            this.chunkCache = chunkCache / MEGABYTE;
+        }
+    }
+
+    /**
+     * Upstream packet batching statistics of all current sessions
+     */
+    @Getter
+    public static class PacketBatchInfo {
+        private final long batches;
+        private final long packets;
+        private final double averageBatchSize;
+        private final int largestBatch;
+
+        PacketBatchInfo() {
+            long batches = 0;
+            long packets = 0;
+            int largestBatch = 0;
+            for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
+                UpstreamSession upstream = session.getUpstream();
+                batches += upstream.getBatchesSent();
+                packets += upstream.getBatchedPacketsSent();
+                largestBatch = Math.max(largestBatch, upstream.getLargestBatch());
+            }
+            this.batches = batches;
+            this.packets = packets;
+            this.averageBatchSize = batches == 0 ? 0 : (double) packets / batches;
+            this.largestBatch = largestBatch;
         }
     }
 
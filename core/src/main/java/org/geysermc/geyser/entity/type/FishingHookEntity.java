@@ -27,6 +27,7 @@ package org.geysermc.geyser.entity.type;
 
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.type.IntEntityMetadata;
 import com.nukkitx.math.vector.Vector3f;
+import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.protocol.bedrock.data.entity.EntityData;
 import com.nukkitx.protocol.bedrock.packet.PlaySoundPacket;
 import lombok.Getter;
@@ -89,7 +90,8 @@ public class FishingHookEntity extends ThrowableEntity {
         boolean touchingWater = false;
         boolean collided = false;
         for (BlockPositionIterator iter = session.getCollisionManager().collidableBlocksIterator(boundingBox); iter.hasNext(); iter.next()) {
-            int blockID = session.getGeyser().getWorldManager().getBlockAt(session, iter.getX(), iter.getY(), iter.getZ());
+            int blockID = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, iter.getX(), iter.getY(), iter.getZ(),
+                    BlockStateValues.JAVA_AIR_ID);
             BlockCollision blockCollision = BlockUtils.getCollision(blockID);
             if (blockCollision != null) {
                 if (blockCollision.checkIntersection(iter.getX(), iter.getY(), iter.getZ(), boundingBox)) {
@@ -158,7 +160,9 @@ public class FishingHookEntity extends ThrowableEntity {
      * @return true if this entity is currently in air.
      */
     protected boolean isInAir() {
-        int block = session.getGeyser().getWorldManager().getBlockAt(session, position.toInt());
+        Vector3i blockPosition = position.toInt();
+        int block = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, blockPosition.getX(), blockPosition.getY(),
+                blockPosition.getZ(), BlockStateValues.JAVA_AIR_ID);
         return block == BlockStateValues.JAVA_AIR_ID;
     }
 
@@ -112,7 +112,7 @@ public class ItemEntity extends ThrowableEntity {
     @Override
     protected void moveAbsoluteImmediate(Vector3f position, float yaw, float pitch, float headYaw, boolean isOnGround, boolean teleported) {
         float offset = definition.offset();
-        if (waterLevel.join() == 0) { // Item is in a full block of water
+        if (waterLevel.getNow(-1) == 0) { // Item is in a full block of water
             // Move the item entity down so it doesn't float above the water
             offset = -definition.offset();
         }
@@ -137,7 +137,8 @@ public class ItemEntity extends ThrowableEntity {
     protected float getDrag() {
         if (isOnGround()) {
             Vector3i groundBlockPos = position.toInt().down(1);
-            int blockState = session.getGeyser().getWorldManager().getBlockAt(session, groundBlockPos);
+            int blockState = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, groundBlockPos.getX(),
+                    groundBlockPos.getY(), groundBlockPos.getZ(), BlockStateValues.JAVA_AIR_ID);
             return BlockStateValues.getSlipperiness(blockState) * 0.98f;
         }
         return 0.98f;
@@ -145,6 +146,7 @@ public class ItemEntity extends ThrowableEntity {
 
     @Override
     protected boolean isInWater() {
-        return waterLevel.join() != -1;
+        // Until the block is known, assume there is no water rather than waiting for it
+        return waterLevel.getNow(-1) != -1;
     }
 }
@@ -27,6 +27,7 @@ package org.geysermc.geyser.entity.type;
 
 import com.github.steveice10.mc.protocol.data.game.entity.type.EntityType;
 import com.nukkitx.math.vector.Vector3f;
+import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.protocol.bedrock.data.LevelEventType;
 import com.nukkitx.protocol.bedrock.data.entity.EntityFlag;
 import com.nukkitx.protocol.bedrock.packet.LevelEventPacket;
@@ -166,7 +167,9 @@ public class ThrowableEntity extends Entity implements Tickable {
      * @return true if this entity is currently in water.
      */
     protected boolean isInWater() {
-        int block = session.getGeyser().getWorldManager().getBlockAt(session, position.toInt());
+        Vector3i blockPosition = position.toInt();
+        int block = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, blockPosition.getX(), blockPosition.getY(),
+                blockPosition.getZ(), BlockStateValues.JAVA_AIR_ID);
         return BlockStateValues.getWaterLevel(block) != -1;
     }
 
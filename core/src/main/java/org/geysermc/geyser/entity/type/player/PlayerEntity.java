@@ -53,6 +53,7 @@ import org.geysermc.geyser.scoreboard.Score;
 import org.geysermc.geyser.scoreboard.Team;
 import org.geysermc.geyser.scoreboard.UpdateType;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.skin.SkinManager;
 import org.geysermc.geyser.translator.text.MessageTranslator;
 
 import javax.annotation.Nullable;
@@ -83,6 +84,11 @@ public class PlayerEntity extends LivingEntity {
      */
     @Nullable
     private String texturesProperty;
+    /**
+     * The skin information parsed from {@link #texturesProperty}, reused for as long as the property doesn't change.
+     */
+    @Nullable
+    private volatile SkinManager.ParsedTextures parsedTextures;
 
     private Vector3i bedPosition;
 
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * Holds blocks looked up through Erosion until the end of the current tick, so the repeated collision checks around
+ * the player do not each need a round trip to the backend. Only accessed from the session's event loop.
+ */
+public final class ErosionBlockCache {
+    public static final int MISSING = -1;
+
+    private final Long2IntOpenHashMap blocks = new Long2IntOpenHashMap();
+
+    public ErosionBlockCache() {
+        this.blocks.defaultReturnValue(MISSING);
+    }
+
+    /**
+     * @return the cached block state, or {@link #MISSING}
+     */
+    public int get(int x, int y, int z) {
+        return this.blocks.get(key(x, y, z));
+    }
+
+    public void put(int x, int y, int z, int blockState) {
+        this.blocks.put(key(x, y, z), blockState);
+    }
+
+    public void clear() {
+        if (!this.blocks.isEmpty()) {
+            this.blocks.clear();
+        }
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import org.geysermc.erosion.util.BlockPositionIterator;
+import org.geysermc.geyser.level.chunk.JavaChunkSection;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps a copy of the chunk sections around the player, fetched from the backend ahead of time, so most block lookups
+ * through Erosion are a local array read. Sections are kept current with the block updates the server sends.
+ * Only accessed from the session's event loop.
+ */
+public final class ErosionRegionCache {
+    /**
+     * How many sections are kept in each direction from the player's section; 1 gives a 3x3x3 window.
+     */
+    private static final int RADIUS = 1;
+
+    private final GeyserSession session;
+    /**
+     * Block states stored as chars, as Java block state IDs fit in 16 bits.
+     */
+    private final Long2ObjectMap<char[]> sections = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<PendingSection> pending = new Long2ObjectOpenHashMap<>();
+
+    private boolean hasCenter = false;
+    private int centerX;
+    private int centerY;
+    private int centerZ;
+
+    public ErosionRegionCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * @return the block state, or {@link ErosionBlockCache#MISSING} if it is not within a fetched section
+     */
+    public int get(int x, int y, int z) {
+        char[] section = this.sections.get(sectionKey(x >> 4, y >> 4, z >> 4));
+        if (section == null) {
+            return ErosionBlockCache.MISSING;
+        }
+        return section[index(x, y, z)];
+    }
+
+    public void update(int x, int y, int z, int blockState) {
+        long key = sectionKey(x >> 4, y >> 4, z >> 4);
+        char[] section = this.sections.get(key);
+        if (section != null) {
+            section[index(x, y, z)] = (char) blockState;
+            return;
+        }
+
+        PendingSection pendingSection = this.pending.get(key);
+        if (pendingSection != null) {
+            // Applied on top of the section once it arrives, as the response may be older than this update
+            pendingSection.updates.add(index(x, y, z));
+            pendingSection.updates.add(blockState);
+        }
+    }
+
+    /**
+     * Replaces any sections of this chunk column in the window with the data of a chunk the server just sent.
+     *
+     * @param minSectionY the section Y of the first section
+     */
+    public void updateColumn(int chunkX, int chunkZ, int minSectionY, JavaChunkSection[] sections) {
+        if (!this.hasCenter || Math.abs(chunkX - this.centerX) > RADIUS || Math.abs(chunkZ - this.centerZ) > RADIUS) {
+            return;
+        }
+
+        for (int sectionY = this.centerY - RADIUS; sectionY <= this.centerY + RADIUS; sectionY++) {
+            int index = sectionY - minSectionY;
+            if (index < 0 || index >= sections.length || sections[index] == null) {
+                continue;
+            }
+
+            JavaChunkSection javaSection = sections[index];
+            char[] section = new char[4096];
+            for (int i = 0; i < section.length; i++) {
+                section[i] = (char) javaSection.get(i & 0xF, i >> 8, (i >> 4) & 0xF);
+            }
+            long key = sectionKey(chunkX, sectionY, chunkZ);
+            PendingSection pendingSection = this.pending.remove(key);
+            if (pendingSection != null) {
+                pendingSection.cancel();
+            }
+            this.sections.put(key, section);
+        }
+    }
+
+    /**
+     * Moves the window to be centered on this block, dropping sections that are no longer in range and fetching new ones.
+     */
+    public void moveTo(GeyserboundPacketHandlerImpl handler, int x, int y, int z) {
+        int sectionX = x >> 4;
+        int sectionY = y >> 4;
+        int sectionZ = z >> 4;
+        if (this.hasCenter && sectionX == this.centerX && sectionY == this.centerY && sectionZ == this.centerZ) {
+            return;
+        }
+        this.hasCenter = true;
+        this.centerX = sectionX;
+        this.centerY = sectionY;
+        this.centerZ = sectionZ;
+
+        for (LongIterator it = this.sections.keySet().iterator(); it.hasNext(); ) {
+            if (!isInRange(it.nextLong())) {
+                it.remove();
+            }
+        }
+        for (var it = this.pending.long2ObjectEntrySet().iterator(); it.hasNext(); ) {
+            Long2ObjectMap.Entry<PendingSection> entry = it.next();
+            if (!isInRange(entry.getLongKey())) {
+                // Don't bother the backend with sections we no longer need
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+
+        for (int dx = -RADIUS; dx <= RADIUS; dx++) {
+            for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+                for (int dz = -RADIUS; dz <= RADIUS; dz++) {
+                    long key = sectionKey(sectionX + dx, sectionY + dy, sectionZ + dz);
+                    if (!this.sections.containsKey(key) && !this.pending.containsKey(key)) {
+                        fetch(handler, key, sectionX + dx, sectionY + dy, sectionZ + dz);
+                    }
+                }
+            }
+        }
+    }
+
+    private void fetch(GeyserboundPacketHandlerImpl handler, long key, int sectionX, int sectionY, int sectionZ) {
+        int minX = sectionX << 4;
+        int minY = sectionY << 4;
+        int minZ = sectionZ << 4;
+        BlockPositionIterator iter = BlockPositionIterator.fromMinMax(minX, minY, minZ, minX + 15, minY + 15, minZ + 15);
+        // Sent at a lower priority, so these never hold up a lookup that something is waiting on
+        CompletableFuture<int[]> future = handler.prefetchBlocks(iter);
+        PendingSection pendingSection = new PendingSection(future);
+        this.pending.put(key, pendingSection);
+
+        future.thenAccept(blocks -> session.ensureInEventLoop(() -> {
+            if (this.pending.get(key) != pendingSection) {
+                // Out of range, or cleared, since this was requested
+                return;
+            }
+            this.pending.remove(key);
+            if (blocks == null) {
+                // Lookup failed; blocks in this section will be looked up individually instead
+                return;
+            }
+
+            char[] section = new char[4096];
+            for (iter.reset(); iter.hasNext(); iter.next()) {
+                section[index(iter.getX(), iter.getY(), iter.getZ())] = (char) blocks[iter.getIteration()];
+            }
+            IntArrayList updates = pendingSection.updates;
+            for (int i = 0; i < updates.size(); i += 2) {
+                section[updates.getInt(i)] = (char) updates.getInt(i + 1);
+            }
+            this.sections.put(key, section);
+        }));
+    }
+
+    public void clear() {
+        this.sections.clear();
+        for (PendingSection pendingSection : this.pending.values()) {
+            pendingSection.cancel();
+        }
+        this.pending.clear();
+        this.hasCenter = false;
+    }
+
+    private boolean isInRange(long key) {
+        int sectionX = (int) (key >> 42) << 10 >> 10;
+        int sectionZ = (int) (key >> 20) << 10 >> 10;
+        int sectionY = (int) key << 12 >> 12;
+        return Math.abs(sectionX - this.centerX) <= RADIUS && Math.abs(sectionY - this.centerY) <= RADIUS
+                && Math.abs(sectionZ - this.centerZ) <= RADIUS;
+    }
+
+    private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) sectionX & 0x3FFFFF) << 42 | ((long) sectionZ & 0x3FFFFF) << 20 | (sectionY & 0xFFFFF);
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 0xF) << 8 | (z & 0xF) << 4 | (x & 0xF);
+    }
+
+    private static final class PendingSection {
+        private final CompletableFuture<int[]> future;
+        private final IntArrayList updates = new IntArrayList();
+
+        private PendingSection(CompletableFuture<int[]> future) {
+            this.future = future;
+        }
+
+        /**
+         * Drops the lookup if it hasn't been sent yet.
+         */
+        private void cancel() {
+            this.future.cancel(false);
+        }
+    }
+}
@@ -42,9 +42,12 @@ import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.erosion.packet.ErosionPacketHandler;
 import org.geysermc.erosion.packet.ErosionPacketSender;
+import org.geysermc.erosion.packet.backendbound.BackendboundBatchBlockRequestPacket;
+import org.geysermc.erosion.packet.backendbound.BackendboundBlockRequestPacket;
 import org.geysermc.erosion.packet.backendbound.BackendboundInitializePacket;
 import org.geysermc.erosion.packet.backendbound.BackendboundPacket;
 import org.geysermc.erosion.packet.geyserbound.*;
+import org.geysermc.erosion.util.BlockPositionIterator;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.physics.Direction;
 import org.geysermc.geyser.network.GameProtocol;
@@ -52,32 +55,57 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.cache.PistonCache;
 import org.geysermc.geyser.translator.level.block.entity.PistonBlockEntity;
 import org.geysermc.geyser.util.BlockEntityUtils;
+import org.geysermc.geyser.util.LatencyHistogram;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacketHandler {
+    /**
+     * How long block lookups take to be answered, across all sessions.
+     */
+    public static final LatencyHistogram LOOKUP_LATENCY = new LatencyHistogram();
+
     private final ErosionPacketSender<BackendboundPacket> packetSender;
-    @Setter
-    private CompletableFuture<Integer> pendingLookup = null;
-    @Getter
-    private final Int2ObjectMap<CompletableFuture<Integer>> asyncPendingLookups = Int2ObjectMaps.synchronize(new Int2ObjectOpenHashMap<>(4));
-    @Setter
-    private CompletableFuture<int[]> pendingBatchLookup = null;
+    private final Int2ObjectMap<CompletableFuture<Integer>> pendingLookups = Int2ObjectMaps.synchronize(new Int2ObjectOpenHashMap<>(4));
+    /**
+     * Batch lookups carry no transaction ID, so they are answered in the order they were sent.
+     */
+    private final Queue<CompletableFuture<int[]>> pendingBatchLookups = new ArrayDeque<>();
+    /**
+     * Lookups that only fill the region cache ahead of time. The backend answers in order, so these are held back
+     * and sent one at a time, only once nothing else is waiting on a batch lookup; that way a lookup someone is
+     * waiting on is never queued behind more than one of them. Guarded by {@link #pendingBatchLookups}.
+     */
+    private final Queue<PrefetchLookup> prefetchLookups = new ArrayDeque<>();
     @Setter
     private CompletableFuture<CompoundTag> pickBlockLookup = null;
+    @Getter
+    private final ErosionBlockCache blockCache = new ErosionBlockCache();
+    @Getter
+    private final ErosionRegionCache regionCache;
 
     private final AtomicInteger nextTransactionId = new AtomicInteger(1);
 
     public GeyserboundPacketHandlerImpl(GeyserSession session, ErosionPacketSender<BackendboundPacket> packetSender) {
         super(session);
         this.packetSender = packetSender;
+        this.regionCache = new ErosionRegionCache(session);
     }
 
     @Override
     public void handleBatchBlockId(GeyserboundBatchBlockIdPacket packet) {
-        if (this.pendingBatchLookup != null) {
-            this.pendingBatchLookup.complete(packet.getBlocks());
+        CompletableFuture<int[]> future;
+        synchronized (this.pendingBatchLookups) {
+            future = this.pendingBatchLookups.poll();
+            sendNextPrefetch();
+        }
+        if (future != null) {
+            future.complete(packet.getBlocks());
         } else {
             session.getGeyser().getLogger().warning("Batch block ID packet received with no future to complete.");
         }
@@ -91,13 +119,7 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
 
     @Override
     public void handleBlockId(GeyserboundBlockIdPacket packet) {
-        if (packet.getTransactionId() == 0) {
-            if (this.pendingLookup != null) {
-                this.pendingLookup.complete(packet.getBlockId());
-                return;
-            }
-        }
-        CompletableFuture<Integer> future = this.asyncPendingLookups.remove(packet.getTransactionId());
+        CompletableFuture<Integer> future = this.pendingLookups.remove(packet.getTransactionId());
         if (future != null) {
             future.complete(packet.getBlockId());
             return;
@@ -108,18 +130,18 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
     @Override
     public void handleBlockLookupFail(GeyserboundBlockLookupFailPacket packet) {
         if (packet.getTransactionId() == 0) {
-            if (this.pendingBatchLookup != null) {
-                this.pendingBatchLookup.complete(null);
-                return;
+            CompletableFuture<int[]> future;
+            synchronized (this.pendingBatchLookups) {
+                future = this.pendingBatchLookups.poll();
+                sendNextPrefetch();
             }
-        }
-        int transactionId = packet.getTransactionId() - 1;
-        if (transactionId == 0) {
-            if (this.pendingLookup != null) {
-                this.pendingLookup.complete(0);
+            if (future != null) {
+                future.complete(null);
             }
+            return;
         }
-        CompletableFuture<Integer> future = this.asyncPendingLookups.remove(transactionId);
+        int transactionId = packet.getTransactionId() - 1;
+        CompletableFuture<Integer> future = this.pendingLookups.remove(transactionId);
         if (future != null) {
             future.complete(BlockStateValues.JAVA_AIR_ID);
         }
@@ -189,12 +211,91 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
         sendPacket(new BackendboundInitializePacket(session.getPlayerEntity().getUuid(), GameProtocol.getJavaProtocolVersion()));
     }
 
+    /**
+     * Asks the backend for a block. Any number of lookups can be in flight at once.
+     */
+    public CompletableFuture<Integer> lookupBlock(int x, int y, int z) {
+        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
+        int transactionId = getNextTransactionId();
+        this.pendingLookups.put(transactionId, future);
+        recordLatency(future);
+        sendPacket(new BackendboundBlockRequestPacket(transactionId, Vector3i.from(x, y, z)));
+        return future;
+    }
+
+    /**
+     * Asks the backend for several blocks at once. The future completes with null if the lookup failed.
+     */
+    public CompletableFuture<int[]> lookupBlocks(BlockPositionIterator iter) {
+        CompletableFuture<int[]> future = new CompletableFuture<>();
+        recordLatency(future);
+        synchronized (this.pendingBatchLookups) {
+            // Queue and send together so the queue order always matches the order the backend answers in
+            this.pendingBatchLookups.add(future);
+            sendPacket(new BackendboundBatchBlockRequestPacket(iter));
+        }
+        return future;
+    }
+
+    /**
+     * Asks the backend for several blocks at once, at a lower priority than {@link #lookupBlocks(BlockPositionIterator)}.
+     * Cancelling the future before the lookup is sent drops it. The future completes with null if the lookup failed.
+     */
+    public CompletableFuture<int[]> prefetchBlocks(BlockPositionIterator iter) {
+        CompletableFuture<int[]> future = new CompletableFuture<>();
+        synchronized (this.pendingBatchLookups) {
+            this.prefetchLookups.add(new PrefetchLookup(iter, future));
+            sendNextPrefetch();
+        }
+        return future;
+    }
+
+    /**
+     * Sends the next prefetch if nothing else is waiting on a batch lookup. Must hold the lock on {@link #pendingBatchLookups}.
+     */
+    private void sendNextPrefetch() {
+        if (!this.pendingBatchLookups.isEmpty()) {
+            return;
+        }
+        PrefetchLookup prefetch;
+        while ((prefetch = this.prefetchLookups.poll()) != null) {
+            if (!prefetch.future().isDone()) {
+                this.pendingBatchLookups.add(prefetch.future());
+                sendPacket(new BackendboundBatchBlockRequestPacket(prefetch.iter()));
+                return;
+            }
+        }
+    }
+
+    private static void recordLatency(CompletableFuture<?> future) {
+        long start = System.nanoTime();
+        future.whenComplete((result, throwable) -> LOOKUP_LATENCY.record(System.nanoTime() - start));
+    }
+
     public void sendPacket(BackendboundPacket packet) {
         this.packetSender.sendPacket(packet);
     }
 
     public void close() {
         this.packetSender.close();
+
+        // Nothing is going to answer these anymore, so don't leave anything waiting on them
+        List<CompletableFuture<Integer>> lookups;
+        synchronized (this.pendingLookups) {
+            lookups = new ArrayList<>(this.pendingLookups.values());
+            this.pendingLookups.clear();
+        }
+        List<CompletableFuture<int[]>> batchLookups;
+        synchronized (this.pendingBatchLookups) {
+            batchLookups = new ArrayList<>(this.pendingBatchLookups);
+            this.pendingBatchLookups.clear();
+            for (PrefetchLookup prefetch : this.prefetchLookups) {
+                batchLookups.add(prefetch.future());
+            }
+            this.prefetchLookups.clear();
+        }
+        lookups.forEach(future -> future.complete(BlockStateValues.JAVA_AIR_ID));
+        batchLookups.forEach(future -> future.complete(null));
     }
 
     public int getNextTransactionId() {
@@ -206,4 +307,7 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
         this.packetSender.setChannel(channel);
         return this;
     }
+
+    private record PrefetchLookup(BlockPositionIterator iter, CompletableFuture<int[]> future) {
+    }
 }
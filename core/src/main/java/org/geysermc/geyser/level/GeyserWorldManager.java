@@ -36,6 +36,9 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.geysermc.erosion.packet.backendbound.*;
 import org.geysermc.erosion.util.BlockPositionIterator;
 import org.geysermc.erosion.util.LecternUtils;
+import org.geysermc.geyser.erosion.ErosionBlockCache;
+import org.geysermc.geyser.erosion.GeyserboundPacketHandlerImpl;
+import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.util.BlockEntityUtils;
 import org.jetbrains.annotations.Nullable;
@@ -47,16 +50,33 @@ import java.util.concurrent.CompletableFuture;
 public class GeyserWorldManager extends WorldManager {
     private final Object2ObjectMap<String, String> gameruleCache = new Object2ObjectOpenHashMap<>();
 
+    /**
+     * With Erosion, a block that isn't cached is looked up on the server, and this waits for the answer. Movement
+     * checks and per-tick entity updates use {@link #loadBlocks(GeyserSession, BlockPositionIterator)} and
+     * {@link #getBlockAtIfLoaded(GeyserSession, int, int, int, int)} so they never wait. What is left waits at most once
+     * per player action or server event: block picking, player actions and inventory transactions, opening containers,
+     * and block events, block entity data, piston and bed lookups for Java packets.
+     */
     @Override
     public int getBlockAt(GeyserSession session, int x, int y, int z) {
         var erosionHandler = session.getErosionHandler().getAsActive();
         if (erosionHandler == null) {
             return session.getChunkCache().getBlockAt(x, y, z);
         }
-        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
-        erosionHandler.setPendingLookup(future);
-        erosionHandler.sendPacket(new BackendboundBlockRequestPacket(0, Vector3i.from(x, y, z)));
-        return future.join();
+        // The block cache is only safe to touch from the event loop
+        boolean inEventLoop = session.getEventLoop().inEventLoop();
+        if (inEventLoop) {
+            int cached = getCachedBlock(erosionHandler, x, y, z);
+            if (cached != ErosionBlockCache.MISSING) {
+                return cached;
+            }
+        }
+
+        int block = erosionHandler.lookupBlock(x, y, z).join();
+        if (inEventLoop) {
+            erosionHandler.getBlockCache().put(x, y, z, block);
+        }
+        return block;
     }
 
     @Override
@@ -65,23 +85,107 @@ public class GeyserWorldManager extends WorldManager {
         if (erosionHandler == null) {
             return super.getBlockAtAsync(session, x, y, z);
         }
-        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
-        int transactionId = erosionHandler.getNextTransactionId();
-        erosionHandler.getAsyncPendingLookups().put(transactionId, future);
-        erosionHandler.sendPacket(new BackendboundBlockRequestPacket(transactionId, Vector3i.from(x, y, z)));
-        return future;
+        if (session.getEventLoop().inEventLoop()) {
+            int cached = getCachedBlock(erosionHandler, x, y, z);
+            if (cached != ErosionBlockCache.MISSING) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        return erosionHandler.lookupBlock(x, y, z);
     }
 
+    /**
+     * Waits the same way as {@link #getBlockAt(GeyserSession, int, int, int)}. Movement checks only call this once the
+     * blocks have been loaded, so they never wait.
+     */
     @Override
     public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
         var erosionHandler = session.getErosionHandler().getAsActive();
         if (erosionHandler == null) {
             return super.getBlocksAt(session, iter);
         }
-        CompletableFuture<int[]> future = new CompletableFuture<>();
-        erosionHandler.setPendingBatchLookup(future);
-        erosionHandler.sendPacket(new BackendboundBatchBlockRequestPacket(iter));
-        return future.join();
+        boolean inEventLoop = session.getEventLoop().inEventLoop();
+        if (inEventLoop) {
+            int[] cached = getCachedBlocks(erosionHandler, iter);
+            if (cached != null) {
+                return cached;
+            }
+            // The packet is written from the iterator's current position
+            iter.reset();
+        }
+
+        int[] blocks = erosionHandler.lookupBlocks(iter).join();
+        if (inEventLoop && blocks != null) {
+            ErosionBlockCache blockCache = erosionHandler.getBlockCache();
+            for (iter.reset(); iter.hasNext(); iter.next()) {
+                blockCache.put(iter.getX(), iter.getY(), iter.getZ(), blocks[iter.getIteration()]);
+            }
+        }
+        return blocks;
+    }
+
+    @Override
+    public int getBlockAtIfLoaded(GeyserSession session, int x, int y, int z, int fallback) {
+        var erosionHandler = session.getErosionHandler().getAsActive();
+        if (erosionHandler == null || !session.getEventLoop().inEventLoop()) {
+            return getBlockAt(session, x, y, z);
+        }
+        int cached = getCachedBlock(erosionHandler, x, y, z);
+        if (cached != ErosionBlockCache.MISSING) {
+            return cached;
+        }
+
+        erosionHandler.lookupBlock(x, y, z).thenAccept(block -> session.ensureInEventLoop(() ->
+                erosionHandler.getBlockCache().put(x, y, z, block)));
+        return fallback;
+    }
+
+    @Override
+    public CompletableFuture<Void> loadBlocks(GeyserSession session, BlockPositionIterator iter) {
+        var erosionHandler = session.getErosionHandler().getAsActive();
+        if (erosionHandler == null || getCachedBlocks(erosionHandler, iter) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        iter.reset();
+        erosionHandler.lookupBlocks(iter).thenAccept(blocks -> session.ensureInEventLoop(() -> {
+            // Filled in and completed in the same task, so the blocks can't be cleared by a tick in between
+            ErosionBlockCache blockCache = erosionHandler.getBlockCache();
+            for (iter.reset(); iter.hasNext(); iter.next()) {
+                // A failed lookup is treated as air, the same as a failed single block lookup
+                int block = blocks == null ? BlockStateValues.JAVA_AIR_ID : blocks[iter.getIteration()];
+                blockCache.put(iter.getX(), iter.getY(), iter.getZ(), block);
+            }
+            loaded.complete(null);
+        }));
+        return loaded;
+    }
+
+    /**
+     * @return the block from the prefetched region around the player or from this tick's lookups, or {@link ErosionBlockCache#MISSING}
+     */
+    private static int getCachedBlock(GeyserboundPacketHandlerImpl erosionHandler, int x, int y, int z) {
+        int block = erosionHandler.getRegionCache().get(x, y, z);
+        if (block != ErosionBlockCache.MISSING) {
+            return block;
+        }
+        return erosionHandler.getBlockCache().get(x, y, z);
+    }
+
+    /**
+     * @return all blocks, or null if any of them are not cached
+     */
+    private static int[] getCachedBlocks(GeyserboundPacketHandlerImpl erosionHandler, BlockPositionIterator iter) {
+        int[] blocks = new int[iter.getMaxIterations()];
+        for (iter.reset(); iter.hasNext(); iter.next()) {
+            int block = getCachedBlock(erosionHandler, iter.getX(), iter.getY(), iter.getZ());
+            if (block == ErosionBlockCache.MISSING) {
+                return null;
+            }
+            blocks[iter.getIteration()] = block;
+        }
+        return blocks;
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level;
+
+import com.github.steveice10.mc.protocol.data.game.level.map.MapData;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.Getter;
+import org.geysermc.geyser.util.HashUtils;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Stores the contents of maps, shared between all sessions. Identical maps - such as the same map art seen by many
+ * players - are translated and kept in memory only once. Canvases are reference counted, and dropped once no session
+ * holds on to them.
+ */
+public final class MapCanvasStore {
+    public static final int SIZE = 128;
+
+    private final Long2ObjectMap<MapCanvas> canvases = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Gets the canvas for the given full map.
+     *
+     * @param javaColors the Java color IDs of all pixels of the map. Must not be modified afterwards.
+     */
+    public MapCanvas acquire(byte[] javaColors) {
+        long hash = HashUtils.xxHash64(Unpooled.wrappedBuffer(javaColors), 0, javaColors.length);
+        synchronized (this) {
+            MapCanvas canvas = this.canvases.get(hash);
+            if (canvas == null) {
+                canvas = new MapCanvas(hash, javaColors, true);
+                this.canvases.put(hash, canvas);
+            } else if (!Arrays.equals(canvas.javaColors, javaColors)) {
+                // Hash collision; don't share this one
+                return new MapCanvas(hash, javaColors, false);
+            }
+            canvas.references++;
+            return canvas;
+        }
+    }
+
+    /**
+     * Gets the canvas that results from drawing a partial map update on top of an existing canvas, and releases the
+     * existing one.
+     *
+     * @param base the current canvas, or null for a blank map
+     */
+    public MapCanvas acquireUpdated(@Nullable MapCanvas base, MapData data) {
+        byte[] javaColors = base != null ? base.javaColors.clone() : new byte[SIZE * SIZE];
+        byte[] update = data.getData();
+        int columns = Math.min(data.getColumns(), SIZE - data.getX());
+        for (int row = 0; row < data.getRows() && columns > 0; row++) {
+            int y = data.getY() + row;
+            if (y >= SIZE) {
+                break;
+            }
+            System.arraycopy(update, row * data.getColumns(), javaColors, y * SIZE + data.getX(), columns);
+        }
+
+        MapCanvas canvas = acquire(javaColors);
+        if (base != null) {
+            release(base);
+        }
+        return canvas;
+    }
+
+    public void release(MapCanvas canvas) {
+        if (!canvas.shared) {
+            return;
+        }
+        synchronized (this) {
+            if (--canvas.references <= 0) {
+                this.canvases.remove(canvas.hash, canvas);
+            }
+        }
+    }
+
+    /**
+     * @return how many distinct map canvases are in memory
+     */
+    public synchronized int size() {
+        return this.canvases.size();
+    }
+
+    public static final class MapCanvas {
+        private final long hash;
+        private final byte[] javaColors;
+        /**
+         * The ARGB color of each pixel, as sent to Bedrock. Must not be modified.
+         */
+        @Getter
+        private final int[] colors;
+        private final boolean shared;
+        private int references;
+
+        private MapCanvas(long hash, byte[] javaColors, boolean shared) {
+            this.hash = hash;
+            this.javaColors = javaColors;
+            this.shared = shared;
+
+            this.colors = new int[javaColors.length];
+            for (int i = 0; i < javaColors.length; i++) {
+                this.colors[i] = MapColor.fromId(javaColors[i] & 0xFF).getARGB();
+            }
+        }
+    }
+}
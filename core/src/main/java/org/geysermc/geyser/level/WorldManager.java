@@ -78,6 +78,29 @@ public abstract class WorldManager {
         return CompletableFuture.completedFuture(this.getBlockAt(session, x, y, z));
     }
 
+    /**
+     * Gets the Java block state at the specified location if that can be done without waiting. Otherwise, the block
+     * is fetched in the background so later calls can return it, and the fallback is returned for now.
+     *
+     * @param fallback the block state to return if the block isn't available yet
+     * @return the block state at the specified location, or the fallback
+     */
+    public int getBlockAtIfLoaded(GeyserSession session, int x, int y, int z, int fallback) {
+        return this.getBlockAt(session, x, y, z);
+    }
+
+    /**
+     * Makes sure all of these blocks can be returned by {@link #getBlocksAt(GeyserSession, BlockPositionIterator)}
+     * and {@link #getBlockAt(GeyserSession, int, int, int)} without waiting, until the end of the current tick.
+     * Must be called from the session's event loop.
+     *
+     * @return a future that is completed on the event loop once the blocks are available. Anything that runs as a
+     * direct continuation of it runs in the same tick.
+     */
+    public CompletableFuture<Void> loadBlocks(GeyserSession session, BlockPositionIterator iter) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
         int[] blocks = new int[iter.getMaxIterations()];
         for (; iter.hasNext(); iter.next()) {
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import io.netty.util.concurrent.FastThreadLocal;
+import org.geysermc.geyser.level.chunk.bitarray.BitArray;
+import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
+import org.geysermc.geyser.util.ChunkUtils;
+
+import java.util.BitSet;
+
+/**
+ * Converts Java's YZX-ordered block storage into Bedrock's XZY-ordered block storage a word at a time, rather than
+ * getting and setting each of the 4096 entries individually.
+ */
+public final class ChunkSectionTranscoder {
+    /**
+     * Palette indices of the section currently being transcoded, in XZY order. One per event loop thread.
+     */
+    private static final FastThreadLocal<int[]> SCRATCH = new FastThreadLocal<>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[BlockStorage.SIZE];
+        }
+    };
+
+    /**
+     * Unpacks the Java palette indices into XZY order. The returned array is reused by the current thread, so it
+     * must not be held onto after the section has been transcoded.
+     *
+     * @param javaData the Java block data of a section that does not use the singleton palette
+     * @return palette indices, indexed by XZY position
+     */
+    public static int[] readXZY(BitStorage javaData) {
+        int[] indices = SCRATCH.get();
+        long[] data = javaData.getData();
+        int bits = javaData.getBitsPerEntry();
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1L;
+
+        int yzx = 0;
+        for (long word : data) {
+            // Since 1.16, Java entries never span multiple longs
+            for (int i = 0; i < valuesPerLong && yzx < BlockStorage.SIZE; i++) {
+                indices[ChunkUtils.indexYZXtoXZY(yzx++)] = (int) (word & mask);
+                word >>>= bits;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Packs XZY-ordered palette indices into a new Bedrock bit array.
+     */
+    public static BitArray write(int[] indices, BitArrayVersion version) {
+        int bits = version.getId();
+        int entriesPerWord = version.getEntriesPerWord();
+        int[] words = new int[version.getWordsForSize(BlockStorage.SIZE)];
+
+        int index = 0;
+        for (int i = 0; i < words.length; i++) {
+            int word = 0;
+            for (int shift = 0; shift < entriesPerWord * bits && index < BlockStorage.SIZE; shift += bits) {
+                word |= indices[index++] << shift;
+            }
+            words[i] = word;
+        }
+        return version.createArray(BlockStorage.SIZE, words);
+    }
+
+    /**
+     * Creates the words of a {@link BitArrayVersion#V1} bit array where every position with a palette index in
+     * the given set is 1.
+     */
+    public static int[] writeMask(int[] indices, BitSet paletteIds) {
+        int[] words = new int[BlockStorage.SIZE >> 5];
+        for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+            if (paletteIds.get(indices[xzy])) {
+                words[xzy >> 5] |= 1 << (xzy & 0x1F);
+            }
+        }
+        return words;
+    }
+
+    private ChunkSectionTranscoder() {
+    }
+}
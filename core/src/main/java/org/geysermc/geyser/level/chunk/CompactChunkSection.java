@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.SingletonPalette;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A section that only holds the block states it actually uses, packed with as few bits as possible. Unlike
+ * {@link DataPalette}, there is no separate palette or storage object, and no hash map for larger palettes.
+ * <p>
+ * Sections made of a single block state (all air, all stone...) hold no block data at all and are shared between
+ * every chunk and session; setting a block in one of those returns a new section. The same goes for sections that
+ * have been {@link #share() shared} explicitly.
+ */
+public final class CompactChunkSection implements JavaChunkSection {
+    private static final Map<Integer, CompactChunkSection> SINGLE_VALUE_SECTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Java block states used in this section. Entries are never removed.
+     */
+    private int[] palette;
+    /**
+     * Palette indices in YZX order, with entries never spanning two longs. Null if this is a single-value section.
+     */
+    private long[] data;
+    private int bits;
+    /**
+     * Whether this section may be referenced from several chunks, and must not be modified.
+     */
+    private boolean shared;
+
+    private CompactChunkSection(int[] palette, long[] data, int bits) {
+        this.palette = palette;
+        this.data = data;
+        this.bits = bits;
+    }
+
+    public static CompactChunkSection singleValue(int state) {
+        return SINGLE_VALUE_SECTIONS.computeIfAbsent(state, s -> new CompactChunkSection(new int[] {s}, null, 0));
+    }
+
+    public static CompactChunkSection from(DataPalette dataPalette) {
+        Palette javaPalette = dataPalette.getPalette();
+        if (javaPalette instanceof SingletonPalette) {
+            return singleValue(javaPalette.idToState(0));
+        }
+
+        BitStorage storage = dataPalette.getStorage();
+        IntArrayList states = new IntArrayList();
+        int[] indices = new int[BlockStorage.SIZE];
+
+        if (javaPalette instanceof GlobalPalette) {
+            Int2IntMap stateToIndex = new Int2IntOpenHashMap();
+            stateToIndex.defaultReturnValue(-1);
+            for (int i = 0; i < BlockStorage.SIZE; i++) {
+                int state = storage.get(i);
+                int index = stateToIndex.get(state);
+                if (index == -1) {
+                    index = states.size();
+                    states.add(state);
+                    stateToIndex.put(state, index);
+                }
+                indices[i] = index;
+            }
+        } else {
+            // Remap the Java palette so any unused entries are dropped
+            int[] remap = new int[javaPalette.size()];
+            Arrays.fill(remap, -1);
+            for (int i = 0; i < BlockStorage.SIZE; i++) {
+                int javaIndex = storage.get(i);
+                int index = remap[javaIndex];
+                if (index == -1) {
+                    index = remap[javaIndex] = states.size();
+                    states.add(javaPalette.idToState(javaIndex));
+                }
+                indices[i] = index;
+            }
+        }
+
+        if (states.size() == 1) {
+            return singleValue(states.getInt(0));
+        }
+
+        CompactChunkSection section = new CompactChunkSection(states.toIntArray(), null, bitsFor(states.size() - 1));
+        section.data = new long[dataLength(section.bits)];
+        for (int i = 0; i < BlockStorage.SIZE; i++) {
+            section.setIndex(i, indices[i]);
+        }
+        return section;
+    }
+
+    /**
+     * Marks this section as read-only, so it may be referenced from several chunks. Setting a block in it will
+     * return a copy from now on.
+     */
+    public CompactChunkSection share() {
+        this.shared = true;
+        return this;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        if (this.data == null) {
+            return this.palette[0];
+        }
+        return this.palette[getIndex(index(x, y, z))];
+    }
+
+    @Override
+    public JavaChunkSection set(int x, int y, int z, int state) {
+        if (this.data == null) {
+            if (this.palette[0] == state) {
+                return this;
+            }
+            // This instance is shared - create a new section
+            CompactChunkSection section = new CompactChunkSection(new int[] {this.palette[0], state}, new long[dataLength(1)], 1);
+            section.setIndex(index(x, y, z), 1);
+            return section;
+        }
+
+        if (this.shared) {
+            // The palette array is never modified in place, only replaced
+            return new CompactChunkSection(this.palette, this.data.clone(), this.bits).set(x, y, z, state);
+        }
+
+        int paletteIndex = -1;
+        for (int i = 0; i < this.palette.length; i++) {
+            if (this.palette[i] == state) {
+                paletteIndex = i;
+                break;
+            }
+        }
+
+        if (paletteIndex == -1) {
+            paletteIndex = this.palette.length;
+            this.palette = Arrays.copyOf(this.palette, paletteIndex + 1);
+            this.palette[paletteIndex] = state;
+            if (bitsFor(paletteIndex) > this.bits) {
+                resize(bitsFor(paletteIndex));
+            }
+        }
+
+        setIndex(index(x, y, z), paletteIndex);
+        return this;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        if (this.data == null || this.shared) {
+            // Shared
+            return 0;
+        }
+        // Object header and fields, plus both arrays with their headers
+        return 32 + 16 + (long) this.palette.length * Integer.BYTES + 16 + (long) this.data.length * Long.BYTES;
+    }
+
+    private void resize(int newBits) {
+        CompactChunkSection resized = new CompactChunkSection(this.palette, new long[dataLength(newBits)], newBits);
+        for (int i = 0; i < BlockStorage.SIZE; i++) {
+            resized.setIndex(i, getIndex(i));
+        }
+        this.data = resized.data;
+        this.bits = newBits;
+    }
+
+    private int getIndex(int index) {
+        int valuesPerLong = 64 / this.bits;
+        int shift = (index % valuesPerLong) * this.bits;
+        return (int) ((this.data[index / valuesPerLong] >>> shift) & ((1L << this.bits) - 1L));
+    }
+
+    private void setIndex(int index, int value) {
+        int valuesPerLong = 64 / this.bits;
+        int longIndex = index / valuesPerLong;
+        int shift = (index % valuesPerLong) * this.bits;
+        long mask = (1L << this.bits) - 1L;
+        this.data[longIndex] = (this.data[longIndex] & ~(mask << shift)) | ((long) value << shift);
+    }
+
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+
+    private static int bitsFor(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    private static int dataLength(int bits) {
+        int valuesPerLong = 64 / bits;
+        return (BlockStorage.SIZE + valuesPerLong - 1) / valuesPerLong;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.geyser.level.chunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.geysermc.geyser.util.HashUtils;
+
+/**
+ * A fully translated Bedrock chunk, ready to be sent in a {@link com.nukkitx.protocol.bedrock.packet.LevelChunkPacket}.
+ * This is immutable and may be shared between sessions.
+ * <p>
+ * The chunk is held either as one array, or split into blobs for clients that support the blob cache, depending on
+ * what the session that translated it needed. The other form is only created once another session needs it.
+ */
+public final class EncodedChunk {
+    private final int sectionCount;
+    /**
+     * The start of each section in {@link #data}, followed by the start of the biome data and then the start of the
+     * border blocks. Null if this chunk was created from blobs.
+     */
+    private final int[] blobOffsets;
+    private volatile byte[] data;
+    private volatile Blobs blobs;
+
+    /**
+     * @param data the serialized sections, biomes, border blocks and block entities
+     * @param sectionCount the amount of sub chunks contained in the data
+     */
+    public EncodedChunk(byte[] data, int sectionCount, int[] blobOffsets) {
+        this.sectionCount = sectionCount;
+        this.blobOffsets = blobOffsets;
+        this.data = data;
+    }
+
+    public EncodedChunk(Blobs blobs, int sectionCount) {
+        this.sectionCount = sectionCount;
+        this.blobOffsets = null;
+        this.blobs = blobs;
+    }
+
+    public int sectionCount() {
+        return sectionCount;
+    }
+
+    /**
+     * @return the whole chunk as one array, for clients that don't support the blob cache
+     */
+    public byte[] data() {
+        byte[] data = this.data;
+        if (data == null) {
+            // Two sessions may both get here at the same time, but they'll come up with the same result
+            Blobs blobs = this.blobs;
+            int size = blobs.remainder().length;
+            for (byte[] blob : blobs.data()) {
+                size += blob.length;
+            }
+            data = new byte[size];
+            int offset = 0;
+            for (byte[] blob : blobs.data()) {
+                System.arraycopy(blob, 0, data, offset, blob.length);
+                offset += blob.length;
+            }
+            System.arraycopy(blobs.remainder(), 0, data, offset, blobs.remainder().length);
+            this.data = data;
+        }
+        return data;
+    }
+
+    /**
+     * @return the chunk split into blobs, for clients that support the blob cache
+     */
+    public Blobs blobs() {
+        Blobs blobs = this.blobs;
+        if (blobs == null) {
+            this.blobs = blobs = Blobs.split(Unpooled.wrappedBuffer(this.data), this.blobOffsets);
+        }
+        return blobs;
+    }
+
+    /**
+     * @param ids the blob ID of each blob, which is the xxHash64 of its data
+     * @param data the data of each section, followed by the biome data
+     * @param remainder the border blocks and block entities, which are always sent in the packet itself
+     */
+    public record Blobs(long[] ids, byte[][] data, byte[] remainder) {
+
+        /**
+         * Copies the chunk out of the buffer as blobs, leaving its reader index at its writer index.
+         *
+         * @param blobOffsets the absolute index of each section in the buffer, followed by the index of the biome data
+         *                    and then the index of the border blocks
+         */
+        public static Blobs split(ByteBuf buf, int[] blobOffsets) {
+            int blobCount = blobOffsets.length - 1;
+            long[] ids = new long[blobCount];
+            byte[][] data = new byte[blobCount][];
+            buf.readerIndex(blobOffsets[0]);
+            for (int i = 0; i < blobCount; i++) {
+                int length = blobOffsets[i + 1] - blobOffsets[i];
+                ids[i] = HashUtils.xxHash64(buf, blobOffsets[i], length);
+                buf.readBytes(data[i] = new byte[length]);
+            }
+            byte[] remainder = new byte[buf.readableBytes()];
+            buf.readBytes(remainder);
+            return new Blobs(ids, data, remainder);
+        }
+    }
+}
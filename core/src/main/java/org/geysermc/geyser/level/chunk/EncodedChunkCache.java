@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.level.block.BlockEntityInfo;
+import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundLevelChunkWithLightPacket;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import org.geysermc.geyser.level.BedrockDimension;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.util.HashUtils;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A proxy-wide cache of translated chunks, so players in the same area don't each translate the same Java chunk.
+ * Entries are keyed by a hash of the Java chunk and everything else that influences its Bedrock translation, and
+ * the Java chunk and biome translations themselves are compared on every hit so a hash collision can't send the
+ * wrong chunk.
+ */
+public final class EncodedChunkCache {
+    private final Map<Key, Entry> chunks;
+    /**
+     * Copies of the biome translations of the entries, so entries translated for the same server share one.
+     */
+    private final Interner<BiomeTranslations> biomeTranslations = Interners.newWeakInterner();
+
+    public EncodedChunkCache(int maxSize) {
+        this.chunks = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, EncodedChunkCache.Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached translation of this packet, or null if there is none
+     */
+    public @Nullable Entry get(Key key, ClientboundLevelChunkWithLightPacket packet, Int2IntMap biomeTranslations) {
+        Entry entry;
+        synchronized (this.chunks) {
+            entry = this.chunks.get(key);
+        }
+        if (entry == null || !Arrays.equals(entry.javaData, packet.getChunkData())
+                || !blockEntitiesEqual(entry.blockEntities, packet.getBlockEntities())
+                || !entry.biomeTranslations.matches(biomeTranslations)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @param javaChunks the Java block data of the chunk, as read while encoding it
+     * @param biomeTranslations the biome translations the chunk was encoded with
+     * @return the new entry
+     */
+    public Entry put(Key key, ClientboundLevelChunkWithLightPacket packet, EncodedChunk chunk, DataPalette[] javaChunks,
+                     Int2IntMap biomeTranslations) {
+        Entry entry = new Entry(chunk, GeyserChunk.shared(javaChunks).sections(), packet.getChunkData(), packet.getBlockEntities(),
+                this.biomeTranslations.intern(BiomeTranslations.copyOf(biomeTranslations)));
+        synchronized (this.chunks) {
+            this.chunks.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static boolean blockEntitiesEqual(BlockEntityInfo[] a, BlockEntityInfo[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            BlockEntityInfo first = a[i];
+            BlockEntityInfo second = b[i];
+            if (first.getX() != second.getX() || first.getY() != second.getY() || first.getZ() != second.getZ()
+                    || first.getType() != second.getType() || !Objects.equals(first.getNbt(), second.getNbt())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param chunk the translated chunk
+     * @param javaSections the Java block data of each section, which is shared and never modified. Sessions can
+     *                     store these in their chunk cache instead of reading the Java chunk again.
+     * @param javaData the Java chunk data this was translated from
+     * @param blockEntities the Java block entities this was translated from
+     * @param biomeTranslations the Java to Bedrock biome translations this was translated with
+     */
+    public record Entry(EncodedChunk chunk, JavaChunkSection[] javaSections, byte[] javaData, BlockEntityInfo[] blockEntities,
+                        BiomeTranslations biomeTranslations) {
+    }
+
+    /**
+     * An unmodifiable copy of a session's Java to Bedrock biome translations.
+     */
+    record BiomeTranslations(Int2IntMap translations, int defaultValue) {
+        static BiomeTranslations copyOf(Int2IntMap translations) {
+            return new BiomeTranslations(Int2IntMaps.unmodifiable(new Int2IntOpenHashMap(translations)), translations.defaultReturnValue());
+        }
+
+        boolean matches(Int2IntMap translations) {
+            return this.defaultValue == translations.defaultReturnValue() && this.translations.equals(translations);
+        }
+    }
+
+    /**
+     * @param dataHash the xxHash64 of the Java chunk data
+     * @param blockEntityHash a hash of all block entities in the chunk
+     * @param blockMappings the block mappings of the session; these are unique per Bedrock version
+     * @param biomeHash a hash of the session's Java to Bedrock biome translations, which depend on the server. The
+     *                  translations themselves are compared on a hit.
+     */
+    public record Key(int chunkX, int chunkZ, long dataHash, int dataLength, int blockEntityHash, BlockMappings blockMappings,
+                      int biomeHash, int biomeGlobalPalette, int minY, int heightY, BedrockDimension bedrockDimension) {
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            // Block mappings are compared by identity as there is only one instance per Bedrock version
+            return chunkX == key.chunkX && chunkZ == key.chunkZ && dataHash == key.dataHash && dataLength == key.dataLength
+                    && blockEntityHash == key.blockEntityHash && blockMappings == key.blockMappings && biomeHash == key.biomeHash
+                    && biomeGlobalPalette == key.biomeGlobalPalette && minY == key.minY && heightY == key.heightY
+                    && bedrockDimension.equals(key.bedrockDimension);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(dataHash) * 31 + System.identityHashCode(blockMappings);
+        }
+
+        public static Key from(GeyserSession session, ClientboundLevelChunkWithLightPacket packet) {
+            byte[] data = packet.getChunkData();
+            long dataHash = HashUtils.xxHash64(Unpooled.wrappedBuffer(data), 0, data.length);
+
+            int blockEntityHash = 1;
+            for (BlockEntityInfo blockEntity : packet.getBlockEntities()) {
+                blockEntityHash = 31 * blockEntityHash + Objects.hash(blockEntity.getX(), blockEntity.getY(), blockEntity.getZ(),
+                        blockEntity.getType(), blockEntity.getNbt());
+            }
+
+            return new Key(packet.getX(), packet.getZ(), dataHash, data.length, blockEntityHash, session.getBlockMappings(),
+                    session.getBiomeTranslations().hashCode(), session.getBiomeGlobalPalette(),
+                    session.getChunkCache().getChunkMinY(), session.getChunkCache().getChunkHeightY(),
+                    session.getChunkCache().getBedrockDimension());
+        }
+    }
+}
@@ -30,9 +30,44 @@ import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
 /**
  * Acts as a lightweight chunk class that doesn't store biomes, heightmaps or block entities.
  */
-public record GeyserChunk(DataPalette[] sections) {
+public record GeyserChunk(JavaChunkSection[] sections) {
 
-    public static GeyserChunk from(DataPalette[] sections) {
+    /**
+     * @param compact whether to convert the sections to {@link CompactChunkSection}s, rather than keeping the
+     *                palettes sent by the server
+     */
+    public static GeyserChunk from(DataPalette[] palettes, boolean compact) {
+        JavaChunkSection[] sections = new JavaChunkSection[palettes.length];
+        for (int i = 0; i < palettes.length; i++) {
+            DataPalette palette = palettes[i];
+            if (palette != null) {
+                sections[i] = compact ? CompactChunkSection.from(palette) : new PaletteChunkSection(palette);
+            }
+        }
         return new GeyserChunk(sections);
     }
+
+    /**
+     * @return a chunk of {@link CompactChunkSection#share() shared} sections, which are copied rather than modified
+     * on block updates
+     */
+    public static GeyserChunk shared(DataPalette[] palettes) {
+        JavaChunkSection[] sections = new JavaChunkSection[palettes.length];
+        for (int i = 0; i < palettes.length; i++) {
+            if (palettes[i] != null) {
+                sections[i] = CompactChunkSection.from(palettes[i]).share();
+            }
+        }
+        return new GeyserChunk(sections);
+    }
+
+    public long getMemoryUsage() {
+        long usage = 16 + 16 + (long) sections.length * 4; // This record, plus the array of references
+        for (JavaChunkSection section : sections) {
+            if (section != null) {
+                usage += section.getMemoryUsage();
+            }
+        }
+        return usage;
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+
+/**
+ * A section backed by MCProtocolLib's {@link DataPalette}, exactly as it was received from the server.
+ */
+public record PaletteChunkSection(DataPalette palette) implements JavaChunkSection {
+
+    @Override
+    public int get(int x, int y, int z) {
+        return palette.get(x, y, z);
+    }
+
+    @Override
+    public JavaChunkSection set(int x, int y, int z, int state) {
+        palette.set(x, y, z, state);
+        return this;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        // Wrapper, palette, storage and their headers, plus the storage longs and palette entries
+        long usage = 96 + (long) Math.min(palette.getPalette().size(), 256) * Integer.BYTES;
+        if (palette.getStorage() != null) {
+            // Singleton palettes have no storage
+            usage += (long) palette.getStorage().getData().length * Long.BYTES;
+        }
+        return usage;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores chunks shared between all sessions connected to the same world of the same server, so memory usage for
+ * chunk caching grows with the area of the world that is loaded rather than with the amount of players.
+ * Chunks are reference counted, and dropped once no session has them loaded. Worlds are kept for as long as any
+ * session holds onto them, even if they have no chunks loaded.
+ * <p>
+ * Only chunks exactly as they were received from the server are shared, and they are never modified. Each session
+ * keeps its own array of sections on top of a shared chunk, and replaces the sections it gets block updates for, so
+ * blocks that the server only shows to one player never reach the others. A chunk is only shared when the data
+ * received for it matches, so two servers that end up with the same {@link WorldKey} can't see each other's chunks.
+ */
+public final class SharedChunkStore {
+    private final Map<WorldKey, World> worlds = new HashMap<>();
+
+    /**
+     * Adds a session to this world. Every call must be followed up by {@link World#leave()} once the session is
+     * done with the world.
+     */
+    public synchronized World joinWorld(WorldKey key) {
+        World world = this.worlds.computeIfAbsent(key, World::new);
+        world.sessions++;
+        return world;
+    }
+
+    /**
+     * @param address the address of the remote server
+     * @param port the port of the remote server
+     * @param worldName the Java world name, e.g. <code>minecraft:overworld</code>
+     * @param dimension the Java dimension type
+     * @param hashedSeed the hashed seed sent with the world, which tells apart servers behind a proxy that use the
+     *                   same world names
+     */
+    public record WorldKey(String address, int port, String worldName, String dimension, long hashedSeed) {
+    }
+
+    public final class World {
+        private final WorldKey key;
+        private final Long2ObjectMap<SharedChunk> chunks = new Long2ObjectOpenHashMap<>();
+        private int sessions = 0;
+
+        private World(WorldKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Adds a reference to the chunk at this position. If the server sent the same data for it as it did to other
+         * sessions, the sections already held for them are returned instead.
+         *
+         * @param chunk the chunk as just received from the server. Its sections must be shared, so they are copied
+         *              rather than modified on block updates.
+         * @param dataHash the xxHash64 of the Java chunk data this chunk was read from
+         * @param alreadyHeld whether the session already holds a reference to this chunk, and is only refreshing it
+         * @return the shared chunk, which must not be modified
+         */
+        public GeyserChunk acquire(long position, GeyserChunk chunk, long dataHash, boolean alreadyHeld) {
+            synchronized (SharedChunkStore.this) {
+                SharedChunk shared = this.chunks.get(position);
+                if (shared == null) {
+                    this.chunks.put(position, new SharedChunk(chunk, dataHash));
+                    return chunk;
+                }
+
+                if (!alreadyHeld) {
+                    shared.references++;
+                }
+
+                if (shared.dataHash != dataHash || shared.chunk.sections().length != chunk.sections().length) {
+                    // This session was sent something else; sessions already holding the old chunk keep their own copy
+                    shared.chunk = chunk;
+                    shared.dataHash = dataHash;
+                }
+                return shared.chunk;
+            }
+        }
+
+        public void release(long position) {
+            synchronized (SharedChunkStore.this) {
+                SharedChunk shared = this.chunks.get(position);
+                if (shared != null && --shared.references <= 0) {
+                    this.chunks.remove(position);
+                }
+            }
+        }
+
+        /**
+         * Removes a session from this world. The session must have released all of its chunks beforehand.
+         */
+        public void leave() {
+            synchronized (SharedChunkStore.this) {
+                if (--this.sessions <= 0) {
+                    worlds.remove(this.key);
+                }
+            }
+        }
+    }
+
+    private static final class SharedChunk {
+        private GeyserChunk chunk;
+        private long dataHash;
+        private int references = 1;
+
+        private SharedChunk(GeyserChunk chunk, long dataHash) {
+            this.chunk = chunk;
+            this.dataHash = dataHash;
+        }
+    }
+}
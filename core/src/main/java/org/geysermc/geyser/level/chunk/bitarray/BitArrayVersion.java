@@ -75,6 +75,10 @@ public enum BitArrayVersion {
         return bits;
     }
 
+    public int getEntriesPerWord() {
+        return entriesPerWord;
+    }
+
     public int getMaxEntryValue() {
         return maxEntryValue;
     }
@@ -47,6 +47,7 @@ import org.geysermc.geyser.util.BlockUtils;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 public class CollisionManager {
 
@@ -79,6 +80,10 @@ public class CollisionManager {
     private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
 
     private static final double PLAYER_STEP_UP = 0.6;
+    /**
+     * Passed as the fallback for blocks that aren't available yet; not a valid block state.
+     */
+    private static final int UNKNOWN_BLOCK = -1;
 
     /**
      * The maximum squared distance between a Bedrock players' movement and our predicted movement before
@@ -86,6 +91,16 @@ public class CollisionManager {
      */
     private static final double INCORRECT_MOVEMENT_THRESHOLD = 0.08;
 
+    /**
+     * The last movement check that has to wait for blocks to be looked up. Later checks queue up behind it, so
+     * movement is still handled in the order it was received.
+     */
+    private CompletableFuture<Void> pendingMovementCheck = CompletableFuture.completedFuture(null);
+    /**
+     * The last result of {@link #isPlayerInWater()} that was based on the actual block.
+     */
+    private boolean playerInWater = false;
+
     public CollisionManager(GeyserSession session) {
         this.session = session;
         this.playerBoundingBox = new BoundingBox(0, 0, 0, 0.6, 1.8, 0.6);
@@ -182,6 +197,65 @@ public class CollisionManager {
         return position;
     }
 
+    /**
+     * Runs the task once every block needed to check the player's movement to this position can be read without
+     * waiting on the world manager. Tasks run on the event loop in the order they were given, so anything else that
+     * has to stay in order with movement should go through here too. Must be called from the event loop.
+     *
+     * @param bedrockPosition the position the player is moving to
+     */
+    public void runWhenMovementBlocksLoaded(Vector3f bedrockPosition, Runnable task) {
+        if (pendingMovementCheck.isDone()) {
+            CompletableFuture<Void> loaded = loadMovementBlocks(bedrockPosition);
+            if (loaded.isDone()) {
+                task.run();
+                return;
+            }
+            pendingMovementCheck = loaded.thenRun(() -> runMovementCheck(task));
+        } else {
+            pendingMovementCheck = pendingMovementCheck
+                    .thenCompose(v -> loadMovementBlocks(bedrockPosition))
+                    .thenRun(() -> runMovementCheck(task));
+        }
+    }
+
+    /**
+     * Runs the task once every movement check that is already waiting for blocks has run, or straight away if none
+     * are. Used for every other packet from the player, as nearly anything they do depends on where they are and must
+     * not reach the server ahead of an earlier movement. Must be called from the event loop.
+     */
+    public void runAfterPendingMovement(Runnable task) {
+        if (pendingMovementCheck.isDone()) {
+            task.run();
+            return;
+        }
+        pendingMovementCheck = pendingMovementCheck.thenRun(() -> runMovementCheck(task));
+    }
+
+    /**
+     * Loads everything {@link #adjustBedrockPosition(Vector3f, boolean, boolean)} may look at for this movement.
+     */
+    private CompletableFuture<Void> loadMovementBlocks(Vector3f bedrockPosition) {
+        BoundingBox box = playerBoundingBox.clone();
+        Vector3d start = box.getBottomCenter();
+        box.extend(bedrockPosition.getX() - start.getX(), bedrockPosition.getY() - EntityDefinitions.PLAYER.offset() - start.getY(),
+                bedrockPosition.getZ() - start.getZ());
+        Vector3f pistonMotion = session.getPistonCache().getPlayerMotion();
+        box.extend(pistonMotion.getX(), pistonMotion.getY(), pistonMotion.getZ());
+        // Pistons can make the player step up
+        box.extend(0, PLAYER_STEP_UP, 0);
+        return session.getGeyser().getWorldManager().loadBlocks(session, collidableBlocksIterator(box));
+    }
+
+    private void runMovementCheck(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            // Don't let this hold up any movement queued behind it
+            session.getGeyser().getLogger().error("Error while handling player movement", t);
+        }
+    }
+
     // TODO: This makes the player look upwards for some reason, rotation values must be wrong
     public void recalculatePosition() {
         PlayerEntity entity = session.getPlayerEntity();
@@ -381,7 +455,9 @@ public class CollisionManager {
      */
     private boolean checkPose(float height) {
         Vector3i position = session.getPlayerEntity().getPosition().toInt();
-        BlockCollision collision = BlockUtils.getCollisionAt(session, position);
+        // If the block isn't available yet, assume the player has room until it is
+        BlockCollision collision = BlockUtils.getCollision(session.getGeyser().getWorldManager().getBlockAtIfLoaded(session,
+                position.getX(), position.getY(), position.getZ(), BlockStateValues.JAVA_AIR_ID));
         if (collision != null) {
             // Determine, if the player's bounding box *were* at full height, if it would intersect with the block
             // at the current location.
@@ -401,10 +477,17 @@ public class CollisionManager {
     }
 
     /**
-     * @return if the player is currently in a water block
+     * @return if the player is currently in a water block. If the block isn't available without waiting, the last
+     * known answer is returned until it is.
      */
     public boolean isPlayerInWater() {
-        return session.getGeyser().getWorldManager().getBlockAt(session, session.getPlayerEntity().getPosition().toInt()) == BlockStateValues.JAVA_WATER_ID;
+        Vector3i position = session.getPlayerEntity().getPosition().toInt();
+        int block = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, position.getX(), position.getY(), position.getZ(),
+                UNKNOWN_BLOCK);
+        if (block != UNKNOWN_BLOCK) {
+            playerInWater = block == BlockStateValues.JAVA_WATER_ID;
+        }
+        return playerInWater;
     }
 
     public boolean isWaterInEyes() {
@@ -413,7 +496,9 @@ public class CollisionManager {
         double eyeZ = playerBoundingBox.getMiddleZ();
 
         eyeY -= 1 / ((double) BlockStateValues.NUM_WATER_LEVELS); // Subtract the height of one water layer
-        int blockID = session.getGeyser().getWorldManager().getBlockAt(session, GenericMath.floor(eyeX), GenericMath.floor(eyeY), GenericMath.floor(eyeZ));
+        // If the block isn't available without waiting, assume there is no water until it is
+        int blockID = session.getGeyser().getWorldManager().getBlockAtIfLoaded(session, GenericMath.floor(eyeX), GenericMath.floor(eyeY),
+                GenericMath.floor(eyeZ), BlockStateValues.JAVA_AIR_ID);
         double waterHeight = BlockStateValues.getWaterHeight(blockID);
 
         return waterHeight != -1 && eyeY < (Math.floor(eyeY) + waterHeight);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import com.nukkitx.protocol.bedrock.BedrockServerSession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the zlib compression level of a Bedrock connection while it is in use.
+ * <p>
+ * If the session's event loop is falling behind, compression is lowered to free up CPU; otherwise, clients with high
+ * latency (typically mobile players) get a higher level to save bandwidth. Ticked from the session's tick loop.
+ */
+public final class AdaptiveCompression {
+    /**
+     * How often, in session ticks, to reconsider the compression level.
+     */
+    private static final int CHECK_INTERVAL = 100;
+    /**
+     * If ticks are running this many milliseconds late on average, the event loop is considered saturated.
+     */
+    private static final double SATURATED_TICK_LAG = 20;
+    private static final long HIGH_LATENCY = 150;
+
+    private final BedrockServerSession session;
+    private final int baseLevel;
+
+    private long lastTickTime = -1;
+    private double averageTickLag = 0;
+    private int ticks = 0;
+
+    public AdaptiveCompression(BedrockServerSession session, int baseLevel) {
+        this.session = session;
+        this.baseLevel = baseLevel;
+    }
+
+    public void tick() {
+        long now = System.nanoTime();
+        if (lastTickTime != -1) {
+            long lag = Math.max(0, TimeUnit.NANOSECONDS.toMillis(now - lastTickTime) - 50);
+            averageTickLag = averageTickLag * 0.9 + lag * 0.1;
+        }
+        lastTickTime = now;
+
+        if (++ticks < CHECK_INTERVAL) {
+            return;
+        }
+        ticks = 0;
+
+        int level = levelFor(baseLevel, averageTickLag, session.getLatency());
+        if (level != session.getCompressionLevel()) {
+            session.setCompressionLevel(level);
+        }
+    }
+
+    static int levelFor(int baseLevel, double averageTickLag, long latency) {
+        if (baseLevel <= 0) {
+            // Compression is disabled or left up to zlib
+            return baseLevel;
+        }
+        if (averageTickLag > SATURATED_TICK_LAG) {
+            return 1;
+        }
+        if (latency > HIGH_LATENCY) {
+            return Math.min(9, baseLevel + 2);
+        }
+        return baseLevel;
+    }
+}
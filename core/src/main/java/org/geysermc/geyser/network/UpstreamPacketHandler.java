@@ -45,11 +45,8 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.PendingMicrosoftAuthentication;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.LoginEncryptionUtils;
-import org.geysermc.geyser.util.MathUtils;
 import org.geysermc.geyser.util.VersionCheckUtils;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.OptionalInt;
@@ -107,11 +104,11 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         }
 
         // New since 1.19.30 - sent before login packet
-        PacketCompressionAlgorithm algorithm = PacketCompressionAlgorithm.ZLIB;
+        PacketCompressionAlgorithm algorithm = geyser.getConfig().getBedrock().getCompressionAlgorithm();
 
         NetworkSettingsPacket responsePacket = new NetworkSettingsPacket();
         responsePacket.setCompressionAlgorithm(algorithm);
-        responsePacket.setCompressionThreshold(512);
+        responsePacket.setCompressionThreshold(geyser.getConfig().getBedrock().getCompressionThreshold());
         session.sendUpstreamPacketImmediately(responsePacket);
 
         session.getUpstream().getSession().setCompression(algorithm);
@@ -136,13 +133,14 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.setBlockMappings(BlockRegistries.BLOCKS.forVersion(loginPacket.getProtocolVersion()));
         session.setItemMappings(Registries.ITEMS.forVersion(loginPacket.getProtocolVersion()));
 
-        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket);
-
-        if (session.isClosed()) {
-            // Can happen if Xbox validation fails
-            return true;
-        }
+        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket, () -> onLoginVerified(loginPacket));
+        return true;
+    }
 
+    /**
+     * Continues the login once the chain has been verified and encryption has started. Called on the event loop.
+     */
+    private void onLoginVerified(LoginPacket loginPacket) {
         // Hack for... whatever this is
         if (loginPacket.getProtocolVersion() == Bedrock_v567.V567_CODEC.getProtocolVersion() && !session.getClientData().getGameVersion().equals("1.19.60")) {
             session.getUpstream().getSession().setPacketCodec(Bedrock_v567patch.BEDROCK_V567PATCH);
@@ -165,7 +163,6 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.sendUpstreamPacket(resourcePacksInfo);
 
         GeyserLocale.loadGeyserLocale(session.locale());
-        return true;
     }
 
     @Override
@@ -267,33 +264,19 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
 
     @Override
     public boolean handle(ResourcePackChunkRequestPacket packet) {
-        ResourcePackChunkDataPacket data = new ResourcePackChunkDataPacket();
         ResourcePack pack = ResourcePack.PACKS.get(packet.getPackId().toString());
 
-        data.setChunkIndex(packet.getChunkIndex());
-        data.setProgress(packet.getChunkIndex() * ResourcePack.CHUNK_SIZE);
-        data.setPackVersion(packet.getPackVersion());
-        data.setPackId(packet.getPackId());
-
-        int offset = packet.getChunkIndex() * ResourcePack.CHUNK_SIZE;
-        long remainingSize = pack.getFile().length() - offset;
-        byte[] packData = new byte[(int) MathUtils.constrain(remainingSize, 0, ResourcePack.CHUNK_SIZE)];
-
-        try (InputStream inputStream = new FileInputStream(pack.getFile())) {
-            inputStream.skip(offset);
-            inputStream.read(packData, 0, packData.length);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        data.setData(packData);
-
-        session.sendUpstreamPacket(data);
-
-        // Check if it is the last chunk and send next pack in queue when available.
-        if (remainingSize <= ResourcePack.CHUNK_SIZE && !packsToSent.isEmpty()) {
-            sendPackDataInfo(packsToSent.pop());
-        }
+        long remainingSize = pack.getSize() - (long) packet.getChunkIndex() * ResourcePack.CHUNK_SIZE;
+        geyser.getResourcePackChunkSender().send(session, pack, packet, () -> {
+            // Check if it is the last chunk and send next pack in queue when available.
+            if (remainingSize <= ResourcePack.CHUNK_SIZE) {
+                session.ensureInEventLoop(() -> {
+                    if (!packsToSent.isEmpty()) {
+                        sendPackDataInfo(packsToSent.pop());
+                    }
+                });
+            }
+        });
 
         return true;
     }
@@ -305,9 +288,9 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         ResourcePackManifest.Header header = pack.getManifest().getHeader();
 
         data.setPackId(header.getUuid());
-        int chunkCount = (int) Math.ceil((int) pack.getFile().length() / (double) ResourcePack.CHUNK_SIZE);
+        int chunkCount = (int) Math.ceil(pack.getSize() / (double) ResourcePack.CHUNK_SIZE);
         data.setChunkCount(chunkCount);
-        data.setCompressedPackSize(pack.getFile().length());
+        data.setCompressedPackSize(pack.getSize());
         data.setMaxChunkSize(ResourcePack.CHUNK_SIZE);
         data.setHash(pack.getSha256());
         data.setPackVersion(packID[1]);
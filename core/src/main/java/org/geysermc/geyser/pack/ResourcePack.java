@@ -29,18 +29,26 @@ import lombok.Getter;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.event.lifecycle.GeyserLoadResourcePacksEvent;
 import org.geysermc.geyser.text.GeyserLocale;
-import org.geysermc.geyser.util.FileUtils;
+import org.geysermc.geyser.util.MathUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -60,6 +68,10 @@ public class ResourcePack {
 
     private byte[] sha256;
     private File file;
+    /**
+     * The pack file mapped into memory, so chunks can be served without opening the file for each one.
+     */
+    private MappedByteBuffer data;
     private ResourcePackManifest manifest;
     private ResourcePackManifest.Version version;
 
@@ -94,52 +106,135 @@ public class ResourcePack {
         GeyserLoadResourcePacksEvent event = new GeyserLoadResourcePacksEvent(resourcePacks);
         GeyserImpl.getInstance().eventBus().fire(event);
 
+        ResourcePackIndex index = ResourcePackIndex.load();
+
+        // Hashing and reading packs is independent for each one, so spread it out over all cores
+        List<CompletableFuture<ResourcePack>> futures = new ArrayList<>();
         for (Path path : event.resourcePacks()) {
-            File file = path.toFile();
-
-            if (file.getName().endsWith(".zip") || file.getName().endsWith(".mcpack")) {
-                ResourcePack pack = new ResourcePack();
-
-                pack.sha256 = FileUtils.calculateSHA256(file);
-
-                try (ZipFile zip = new ZipFile(file);
-                     Stream<? extends ZipEntry> stream = zip.stream()) {
-                    stream.forEach((x) -> {
-                        String name = x.getName();
-                        if (name.length() >= 80) {
-                            GeyserImpl.getInstance().getLogger().warning("The resource pack " + file.getName()
-                                    + " has a file in it that meets or exceeds 80 characters in its path (" + name
-                                    + ", " + name.length() + " characters long). This will cause problems on some Bedrock platforms." +
-                                    " Please rename it to be shorter, or reduce the amount of folders needed to get to the file.");
-                        }
-                        if (name.contains("manifest.json")) {
-                            try {
-                                ResourcePackManifest manifest = FileUtils.loadJson(zip.getInputStream(x), ResourcePackManifest.class);
-                                // Sometimes a pack_manifest file is present and not in a valid format,
-                                // but a manifest file is, so we null check through that one
-                                if (manifest.getHeader().getUuid() != null) {
-                                    pack.file = file;
-                                    pack.manifest = manifest;
-                                    pack.version = ResourcePackManifest.Version.fromArray(manifest.getHeader().getVersion());
-
-                                    PACKS.put(pack.getManifest().getHeader().getUuid().toString(), pack);
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
+            String name = path.getFileName().toString();
+            if (name.endsWith(".zip") || name.endsWith(".mcpack")) {
+                futures.add(CompletableFuture.supplyAsync(() -> loadPack(path, index)));
+            }
+        }
+
+        for (CompletableFuture<ResourcePack> future : futures) {
+            ResourcePack pack = future.join();
+            if (pack != null) {
+                PACKS.put(pack.getManifest().getHeader().getUuid().toString(), pack);
+            }
+        }
+
+        index.save();
+    }
+
+    /**
+     * @return the loaded pack, or null if it is broken or has no valid manifest
+     */
+    private static ResourcePack loadPack(Path path, ResourcePackIndex index) {
+        File file = path.toFile();
+        try {
+            long size = Files.size(path);
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            ResourcePackIndex.Entry entry = index.get(path, size, lastModified);
+            if (entry == null) {
+                entry = readPack(file, size, lastModified);
+            }
+            index.put(path, entry);
+
+            for (String name : entry.longPaths()) {
+                GeyserImpl.getInstance().getLogger().warning("The resource pack " + file.getName()
+                        + " has a file in it that meets or exceeds 80 characters in its path (" + name
+                        + ", " + name.length() + " characters long). This will cause problems on some Bedrock platforms." +
+                        " Please rename it to be shorter, or reduce the amount of folders needed to get to the file.");
+            }
+
+            if (entry.manifest() == null) {
+                return null;
+            }
+
+            ResourcePack pack = new ResourcePack();
+            pack.file = file;
+            pack.sha256 = entry.sha256();
+            pack.manifest = GeyserImpl.JSON_MAPPER.readValue(entry.manifest(), ResourcePackManifest.class);
+            pack.version = ResourcePackManifest.Version.fromArray(pack.manifest.getHeader().getVersion());
+
+            // Check if a file exists with the same name as the resource pack suffixed by .key,
+            // and set this as content key. (e.g. test.zip, key file would be test.zip.key)
+            File keyFile = new File(file.getParentFile(), file.getName() + ".key");
+            pack.contentKey = keyFile.exists() ? Files.readString(keyFile.toPath(), StandardCharsets.UTF_8) : "";
+
+            // Only map packs that are actually going to be sent
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                pack.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            return pack;
+        } catch (Exception e) {
+            GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.resource_pack.broken", file.getName()));
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Hashes the pack and looks through it for its manifest.
+     */
+    private static ResourcePackIndex.Entry readPack(File file, long size, long lastModified) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        List<String> longPaths = new ArrayList<>();
+        String manifestJson = null;
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry x = entries.nextElement();
+                String name = x.getName();
+                if (name.length() >= 80) {
+                    longPaths.add(name);
+                }
+                if (name.contains("manifest.json")) {
+                    try (InputStream stream = zip.getInputStream(x)) {
+                        String json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+                        ResourcePackManifest manifest = GeyserImpl.JSON_MAPPER.readValue(json, ResourcePackManifest.class);
+                        // Sometimes a pack_manifest file is present and not in a valid format,
+                        // but a manifest file is, so we null check through that one
+                        if (manifest.getHeader().getUuid() != null) {
+                            manifestJson = json;
                         }
-                    });
-
-                    // Check if a file exists with the same name as the resource pack suffixed by .key,
-                    // and set this as content key. (e.g. test.zip, key file would be test.zip.key)
-                    File keyFile = new File(file.getParentFile(), file.getName() + ".key");
-                    pack.contentKey = keyFile.exists() ? Files.readString(keyFile.toPath(), StandardCharsets.UTF_8) : "";
-                } catch (Exception e) {
-                    GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.resource_pack.broken", file.getName()));
-                    e.printStackTrace();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
                 }
             }
         }
+
+        return new ResourcePackIndex.Entry(size, lastModified, digest.digest(), manifestJson, longPaths);
+    }
+
+    /**
+     * @return the size of the pack file, in bytes
+     */
+    public long getSize() {
+        return data.capacity();
+    }
+
+    /**
+     * Copies one {@link #CHUNK_SIZE} chunk of the pack, to be sent to a client. Safe to call from any thread.
+     */
+    public byte[] getChunk(int index) {
+        long offset = (long) index * CHUNK_SIZE;
+        byte[] chunk = new byte[(int) MathUtils.constrain(getSize() - offset, 0, CHUNK_SIZE)];
+        if (chunk.length > 0) {
+            // Absolute gets don't touch the buffer's position
+            data.get((int) offset, chunk);
+        }
+        return chunk;
     }
 
     public byte[] getSha256() {
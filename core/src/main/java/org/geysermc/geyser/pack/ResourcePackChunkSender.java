@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.pack;
+
+import com.nukkitx.protocol.bedrock.packet.ResourcePackChunkDataPacket;
+import com.nukkitx.protocol.bedrock.packet.ResourcePackChunkRequestPacket;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends resource pack chunks to clients from its own thread, so reading packs never holds up the session event loops,
+ * and optionally limits how fast chunks are sent across all sessions combined.
+ */
+public final class ResourcePackChunkSender {
+    private static final long TICK_MILLIS = 50;
+
+    private final ScheduledExecutorService executor;
+    /**
+     * How many bytes may be sent each tick, or zero if not limited.
+     */
+    private final long bytesPerTick;
+    /**
+     * Only accessed from the executor thread.
+     */
+    private final Queue<Request> pending = new ArrayDeque<>();
+    private long allowance;
+
+    /**
+     * @param kilobytesPerSecond the limit for all sessions combined, or zero for no limit
+     */
+    public ResourcePackChunkSender(int kilobytesPerSecond) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("Geyser Resource Pack Sender", true));
+        this.bytesPerTick = Math.max(0, kilobytesPerSecond) * 1024L * TICK_MILLIS / 1000;
+        this.allowance = this.bytesPerTick;
+        if (this.bytesPerTick > 0) {
+            this.executor.scheduleAtFixedRate(this::refill, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues the requested chunk to be sent.
+     *
+     * @param onSent called from the sender thread once the chunk has been sent
+     */
+    public void send(GeyserSession session, ResourcePack pack, ResourcePackChunkRequestPacket packet, Runnable onSent) {
+        this.executor.execute(() -> {
+            this.pending.add(new Request(session, pack, packet, onSent));
+            drain();
+        });
+    }
+
+    private void refill() {
+        // Carry over any overdraft, since a chunk can be larger than what is allowed in one tick
+        this.allowance = Math.min(this.allowance + this.bytesPerTick, this.bytesPerTick);
+        drain();
+    }
+
+    private void drain() {
+        Request request;
+        while ((this.bytesPerTick == 0 || this.allowance > 0) && (request = this.pending.poll()) != null) {
+            if (request.session().isClosed()) {
+                continue;
+            }
+
+            try {
+                ResourcePackChunkRequestPacket packet = request.packet();
+                ResourcePackChunkDataPacket data = new ResourcePackChunkDataPacket();
+                data.setChunkIndex(packet.getChunkIndex());
+                data.setProgress(packet.getChunkIndex() * ResourcePack.CHUNK_SIZE);
+                data.setPackVersion(packet.getPackVersion());
+                data.setPackId(packet.getPackId());
+                data.setData(request.pack().getChunk(packet.getChunkIndex()));
+
+                this.allowance -= data.getData().length;
+                request.session().sendUpstreamPacket(data);
+                request.onSent().run();
+            } catch (Throwable e) {
+                GeyserImpl.getInstance().getLogger().error("Error while sending resource pack chunk", e);
+            }
+        }
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private record Request(GeyserSession session, ResourcePack pack, ResourcePackChunkRequestPacket packet, Runnable onSent) {
+    }
+}
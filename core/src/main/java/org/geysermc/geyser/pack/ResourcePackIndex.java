@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.pack;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the hash and manifest of each resource pack by its file size and modification time, so packs that have
+ * not changed do not need to be read in full on every startup.
+ */
+final class ResourcePackIndex {
+    private static final String FILE_NAME = "resource_pack_index.json";
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    /**
+     * Only entries for packs that still exist are saved.
+     */
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+
+    private ResourcePackIndex(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    static ResourcePackIndex load() {
+        Path file = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve(FILE_NAME);
+        Map<String, Entry> entries = Map.of();
+        if (Files.exists(file)) {
+            try {
+                entries = GeyserImpl.JSON_MAPPER.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() {});
+            } catch (IOException e) {
+                GeyserImpl.getInstance().getLogger().debug("Could not read the resource pack index; all packs will be read again: " + e.getMessage());
+            }
+        }
+        return new ResourcePackIndex(file, entries);
+    }
+
+    /**
+     * @return the cached entry for this pack, or null if there is none or the pack has changed since
+     */
+    Entry get(Path pack, long size, long lastModified) {
+        Entry entry = this.entries.get(key(pack));
+        if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+            return entry;
+        }
+        return null;
+    }
+
+    void put(Path pack, Entry entry) {
+        this.used.put(key(pack), entry);
+    }
+
+    void save() {
+        if (this.used.equals(this.entries)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(this.file.getParent());
+            GeyserImpl.JSON_MAPPER.writeValue(this.file.toFile(), this.used);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not save the resource pack index: " + e.getMessage());
+        }
+    }
+
+    private static String key(Path pack) {
+        return pack.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * @param sha256 the hash of the whole pack file
+     * @param manifest the contents of the pack's manifest, or null if it has no valid manifest
+     * @param longPaths files in the pack with paths too long for some Bedrock platforms
+     */
+    record Entry(long size, long lastModified, byte[] sha256, String manifest, List<String> longPaths) {
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry entry)) {
+                return false;
+            }
+            // The hash is compared by content, so unchanged packs don't cause the index to be saved again
+            return size == entry.size && lastModified == entry.lastModified && Arrays.equals(sha256, entry.sha256)
+                    && Objects.equals(manifest, entry.manifest) && Objects.equals(longPaths, entry.longPaths);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified, Arrays.hashCode(sha256), manifest, longPaths);
+        }
+    }
+}
@@ -61,10 +61,12 @@ public class PacketTranslatorRegistry<T> extends AbstractMappedRegistry<Class<?
         PacketTranslator<P> translator = (PacketTranslator<P>) this.mappings.get(clazz);
         if (translator != null) {
             EventLoop eventLoop = session.getEventLoop();
-            if (!translator.shouldExecuteInEventLoop() || eventLoop.inEventLoop()) {
+            if (!translator.shouldExecuteInEventLoop()) {
                 translate0(session, translator, packet);
+            } else if (eventLoop.inEventLoop()) {
+                translateInOrder(session, translator, packet);
             } else {
-                eventLoop.execute(() -> translate0(session, translator, packet));
+                eventLoop.execute(() -> translateInOrder(session, translator, packet));
             }
             return true;
         } else {
@@ -77,6 +79,15 @@ public class PacketTranslatorRegistry<T> extends AbstractMappedRegistry<Class<?
         }
     }
 
+    private <P extends T> void translateInOrder(GeyserSession session, PacketTranslator<P> translator, P packet) {
+        if (packet instanceof BedrockPacket) {
+            // Don't let this overtake a movement that is still waiting for blocks to be checked against
+            session.getCollisionManager().runAfterPendingMovement(() -> translate0(session, translator, packet));
+        } else {
+            translate0(session, translator, packet);
+        }
+    }
+
     private <P extends T> void translate0(GeyserSession session, PacketTranslator<P> translator, P packet) {
         if (session.isClosed()) {
             return;
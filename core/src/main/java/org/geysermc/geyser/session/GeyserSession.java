@@ -78,6 +78,7 @@ import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
@@ -109,7 +110,6 @@ import org.geysermc.geyser.configuration.EmoteOffhandWorkaroundOption;
 import org.geysermc.geyser.entity.EntityDefinitions;
 import org.geysermc.geyser.entity.attribute.GeyserAttributeType;
 import org.geysermc.geyser.entity.type.Entity;
-import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.entity.type.Tickable;
 import org.geysermc.geyser.entity.type.player.SessionPlayerEntity;
 import org.geysermc.geyser.erosion.AbstractGeyserboundPacketHandler;
@@ -119,8 +119,10 @@ import org.geysermc.geyser.inventory.PlayerInventory;
 import org.geysermc.geyser.inventory.recipe.GeyserRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserStonecutterData;
 import org.geysermc.geyser.level.JavaDimension;
+import org.geysermc.geyser.level.MapCanvasStore;
 import org.geysermc.geyser.level.WorldManager;
 import org.geysermc.geyser.level.physics.CollisionManager;
+import org.geysermc.geyser.network.AdaptiveCompression;
 import org.geysermc.geyser.network.netty.LocalSession;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.registry.type.BlockMappings;
@@ -187,6 +189,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
     private final AdvancementsCache advancementsCache;
     private final BookEditCache bookEditCache;
+    private final ChunkBlobCache chunkBlobCache;
     private final ChunkCache chunkCache;
     private final EntityCache entityCache;
     private final EntityEffectCache effectCache;
@@ -243,6 +246,16 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private ItemMappings itemMappings;
 
     private final Long2ObjectMap<ClientboundMapItemDataPacket> storedMaps = new Long2ObjectOpenHashMap<>();
+    /**
+     * How many maps waiting to be requested by the client are kept up-to-date with partial updates.
+     */
+    private static final int MAX_MAP_CANVASES = 32;
+    /**
+     * The current contents of each map in {@link #storedMaps}, so partial updates can be applied before the client asks
+     * for it. Shared with other sessions through the {@link org.geysermc.geyser.level.MapCanvasStore}, and capped at
+     * {@link #MAX_MAP_CANVASES} entries; the least recently updated map stops receiving partial updates first.
+     */
+    private final Long2ObjectLinkedOpenHashMap<MapCanvasStore.MapCanvas> mapCanvases = new Long2ObjectLinkedOpenHashMap<>();
 
     /**
      * Required to decode biomes correctly.
@@ -255,10 +268,10 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private final Int2IntMap biomeTranslations = new Int2IntOpenHashMap();
 
     /**
-     * A map of Vector3i positions to Java entities.
+     * Item frames by position.
      * Used for translating Bedrock block actions to Java entity actions.
      */
-    private final Map<Vector3i, ItemFrameEntity> itemFrameCache = new Object2ObjectOpenHashMap<>();
+    private final ItemFrameCache itemFrameCache = new ItemFrameCache();
 
     /**
      * Stores a list of all lectern locations and their block entity tags.
@@ -303,6 +316,11 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      */
     @Setter
     private String worldName = null;
+    /**
+     * The hashed seed of the current world, as sent by the server. Used to tell apart worlds with the same name.
+     */
+    @Setter
+    private long hashedSeed;
     /**
      * As of Java 1.19.3, the client only uses these for commands.
      */
@@ -539,6 +557,11 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      */
     private ScheduledFuture<?> tickThread = null;
 
+    /**
+     * Adjusts the compression level of the Bedrock connection, if enabled in the config.
+     */
+    private final AdaptiveCompression adaptiveCompression;
+
     /**
      * Used to return the player to their original rotation after using an item in BedrockInventoryTransactionTranslator
      */
@@ -555,13 +578,21 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
     public GeyserSession(GeyserImpl geyser, BedrockServerSession bedrockServerSession, EventLoop eventLoop) {
         this.geyser = geyser;
-        this.upstream = new UpstreamSession(bedrockServerSession);
+        this.upstream = new UpstreamSession(bedrockServerSession, eventLoop, geyser.getConfig().isUpstreamPacketBatching());
         this.eventLoop = eventLoop;
 
+        if (geyser.getConfig().getBedrock().isAdaptiveCompression()
+                && geyser.getConfig().getBedrock().getCompressionAlgorithm() == PacketCompressionAlgorithm.ZLIB) {
+            this.adaptiveCompression = new AdaptiveCompression(bedrockServerSession, geyser.getConfig().getBedrock().getCompressionLevel());
+        } else {
+            this.adaptiveCompression = null;
+        }
+
         this.erosionHandler = new GeyserboundHandshakePacketHandler(this);
 
         this.advancementsCache = new AdvancementsCache(this);
         this.bookEditCache = new BookEditCache(this);
+        this.chunkBlobCache = new ChunkBlobCache(this);
         this.chunkCache = new ChunkCache(this);
         this.entityCache = new EntityCache(this);
         this.effectCache = new EntityEffectCache();
@@ -1001,7 +1032,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
                     sendMessage("Loading your locale (en_us); if this isn't already downloaded, this may take some time");
                 }
 
-                // Download and load the language for the player
+                // Download and load the language for the player in the background
                 MinecraftLocale.downloadAndLoadLocale(locale);
             }
 
@@ -1085,6 +1116,11 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
                 upstream.disconnect(reason);
             }
             geyser.getSessionManager().removeSession(this);
+            if (geyser.getSharedChunkStore() != null) {
+                // Let go of this session's references to chunks shared with other players
+                ensureInEventLoop(chunkCache::clear);
+            }
+            ensureInEventLoop(this::releaseMapCanvases);
             if (authData != null) {
                 PendingMicrosoftAuthentication.AuthenticationTask task = geyser.getPendingMicrosoftAuthentication().getTask(authData.xuid());
                 if (task != null) {
@@ -1102,6 +1138,36 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         closed = true;
     }
 
+    /**
+     * Keeps the given canvas for a map until the client requests it, releasing the one it replaces.
+     */
+    public void putMapCanvas(long mapId, MapCanvasStore.MapCanvas canvas) {
+        MapCanvasStore.MapCanvas oldCanvas = this.mapCanvases.putAndMoveToLast(mapId, canvas);
+        if (oldCanvas != null) {
+            geyser.getMapCanvasStore().release(oldCanvas);
+        }
+        if (this.mapCanvases.size() > MAX_MAP_CANVASES) {
+            geyser.getMapCanvasStore().release(this.mapCanvases.removeFirst());
+        }
+    }
+
+    /**
+     * Lets go of the canvas of a map, once it no longer needs to be kept up-to-date.
+     */
+    public void releaseMapCanvas(long mapId) {
+        MapCanvasStore.MapCanvas canvas = this.mapCanvases.remove(mapId);
+        if (canvas != null) {
+            geyser.getMapCanvasStore().release(canvas);
+        }
+    }
+
+    private void releaseMapCanvases() {
+        for (MapCanvasStore.MapCanvas canvas : this.mapCanvases.values()) {
+            geyser.getMapCanvasStore().release(canvas);
+        }
+        this.mapCanvases.clear();
+    }
+
     /**
      * Moves task to the session event loop if already not in it. Otherwise, the task is automatically ran.
      */
@@ -1144,17 +1210,31 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      */
     protected void tick() {
         try {
+            if (adaptiveCompression != null) {
+                adaptiveCompression.tick();
+            }
+            var activeErosionHandler = erosionHandler.getAsActive();
+            if (activeErosionHandler != null) {
+                // Blocks looked up through Erosion are only trusted for the tick they were looked up in
+                activeErosionHandler.getBlockCache().clear();
+                if (spawned) {
+                    Vector3i position = playerEntity.getPosition().toInt();
+                    activeErosionHandler.getRegionCache().moveTo(activeErosionHandler, position.getX(), position.getY(), position.getZ());
+                }
+            }
             pistonCache.tick();
             // Check to see if the player's position needs updating - a position update should be sent once every 3 seconds
             if (spawned && (System.currentTimeMillis() - lastMovementTimestamp) > 3000) {
                 // Recalculate in case something else changed position
-                Vector3d position = collisionManager.adjustBedrockPosition(playerEntity.getPosition(), playerEntity.isOnGround(), false);
-                // A null return value cancels the packet
-                if (position != null) {
-                    ServerboundMovePlayerPosPacket packet = new ServerboundMovePlayerPosPacket(playerEntity.isOnGround(),
-                            position.getX(), position.getY(), position.getZ());
-                    sendDownstreamPacket(packet);
-                }
+                collisionManager.runWhenMovementBlocksLoaded(playerEntity.getPosition(), () -> {
+                    Vector3d position = collisionManager.adjustBedrockPosition(playerEntity.getPosition(), playerEntity.isOnGround(), false);
+                    // A null return value cancels the packet
+                    if (position != null) {
+                        ServerboundMovePlayerPosPacket packet = new ServerboundMovePlayerPosPacket(playerEntity.isOnGround(),
+                                position.getX(), position.getY(), position.getZ());
+                        sendDownstreamPacket(packet);
+                    }
+                });
                 lastMovementTimestamp = System.currentTimeMillis();
             }
 
@@ -1581,7 +1661,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     }
 
     /**
-     * Send a packet immediately to the player.
+     * Send a packet immediately to the player, skipping ahead of any packets waiting in the batch.
      *
      * @param packet the bedrock packet from the NukkitX protocol lib
      */
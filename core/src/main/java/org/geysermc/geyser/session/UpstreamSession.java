@@ -27,35 +27,129 @@ package org.geysermc.geyser.session;
 
 import com.nukkitx.protocol.bedrock.BedrockPacket;
 import com.nukkitx.protocol.bedrock.BedrockServerSession;
+import io.netty.channel.EventLoop;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 @RequiredArgsConstructor
 public class UpstreamSession {
+    /**
+     * Flush early if this many packets are waiting, so a single batch does not grow without bound.
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
     @Getter private final BedrockServerSession session;
-    @Getter @Setter
+    private final EventLoop eventLoop;
+    /**
+     * Whether packets should be held back and sent together, once the tasks that are already queued on the event loop
+     * (usually the rest of the Java packets received alongside) have run. Packets sent from other threads are moved
+     * onto the event loop first, so they stay in order with the batch.
+     */
+    private final boolean batching;
+    @Getter
     private boolean initialized = false;
+    /**
+     * Set a little after {@link #initialized}, once the protocol library has sent whatever was still in its own
+     * queue. Batches are sent directly, so they would overtake anything left there.
+     */
+    private volatile boolean batchingStarted = false;
     private Queue<BedrockPacket> postStartGamePackets = new ArrayDeque<>();
 
+    private final List<BedrockPacket> batch = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    @Getter
+    private long batchesSent = 0;
+    @Getter
+    private long batchedPacketsSent = 0;
+    @Getter
+    private int largestBatch = 0;
+
+    public void setInitialized(boolean initialized) {
+        this.initialized = initialized;
+        if (batching && initialized && !batchingStarted) {
+            // The library sends its queue every 50 ms; give it time to empty before batches go out on their own
+            eventLoop.schedule(() -> batchingStarted = true, 100, TimeUnit.MILLISECONDS);
+        }
+    }
+
     public void sendPacket(@NonNull BedrockPacket packet) {
-        if (!isClosed()) {
-            session.sendPacket(packet);
+        if (isClosed()) {
+            return;
+        }
+
+        // Only batch once logged in, so nothing can end up on the wrong side of encryption being enabled
+        if (batchingStarted) {
+            if (!eventLoop.inEventLoop()) {
+                // Go through the event loop, so this can't overtake anything that is waiting in the batch
+                eventLoop.execute(() -> sendPacket(packet));
+                return;
+            }
+
+            batch.add(packet);
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                flush();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                eventLoop.execute(this::flush);
+            }
+            return;
+        }
+        session.sendPacket(packet);
+    }
+
+    /**
+     * Sends all packets waiting in the batch as one wrapped batch, without waiting for the protocol library's tick.
+     * Must be called from the event loop.
+     */
+    public void flush() {
+        flushScheduled = false;
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!isClosed()) {
+                session.sendWrapped(batch, true);
+
+                batchesSent++;
+                batchedPacketsSent += batch.size();
+                largestBatch = Math.max(largestBatch, batch.size());
+            }
+        } finally {
+            batch.clear();
         }
     }
 
     public void sendPacketImmediately(@NonNull BedrockPacket packet) {
-        if (!isClosed()) {
-            session.sendPacketImmediately(packet);
+        if (isClosed()) {
+            return;
+        }
+
+        if (batchingStarted) {
+            if (!eventLoop.inEventLoop()) {
+                eventLoop.execute(() -> sendPacketImmediately(packet));
+                return;
+            }
+            // Send what is waiting first, so this doesn't overtake it
+            flush();
         }
+        session.sendPacketImmediately(packet);
     }
 
     public void disconnect(String reason) {
+        if (eventLoop.inEventLoop()) {
+            // Don't lose anything that was meant to be sent before the disconnect
+            flush();
+        }
         session.disconnect(reason);
     }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.auth;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the expensive parts of logging in - verifying the certificate chain and setting up encryption - on a bounded
+ * pool of threads, so a wave of logins can't hold up the network threads that existing players depend on.
+ */
+public final class LoginCryptoExecutor {
+    /**
+     * How many server key pairs to keep generated ahead of time.
+     */
+    private static final int KEY_PAIR_POOL_SIZE = 16;
+
+    private final ThreadPoolExecutor executor;
+    /**
+     * Logins take priority, so key pairs are generated outside of their pool; a single background thread is plenty.
+     */
+    private final ExecutorService keyPairGenerator = Executors.newSingleThreadExecutor(new DefaultThreadFactory("Geyser Login Key Generator", true));
+    private final BlockingQueue<KeyPair> keyPairs = new ArrayBlockingQueue<>(KEY_PAIR_POOL_SIZE);
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * @param maxPendingLogins how many logins may wait for a thread before new ones are turned away
+     */
+    public LoginCryptoExecutor(int maxPendingLogins) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxPendingLogins)), new DefaultThreadFactory("Geyser Login Thread", true));
+        refillKeyPairs();
+    }
+
+    /**
+     * @return false if too many logins are already waiting, in which case the task will not be run
+     */
+    public boolean execute(Runnable task) {
+        try {
+            this.executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes a secp384r1 key pair for the encryption handshake, generating one on the spot if none are ready.
+     */
+    public KeyPair takeKeyPair() throws GeneralSecurityException {
+        KeyPair keyPair = this.keyPairs.poll();
+        if (this.keyPairs.size() < KEY_PAIR_POOL_SIZE / 2) {
+            refillKeyPairs();
+        }
+        return keyPair != null ? keyPair : generateKeyPair();
+    }
+
+    private void refillKeyPairs() {
+        if (this.keyPairGenerator.isShutdown() || !this.refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.keyPairGenerator.execute(() -> {
+            try {
+                while (this.keyPairs.remainingCapacity() > 0 && !this.executor.isShutdown()) {
+                    this.keyPairs.offer(generateKeyPair());
+                }
+            } catch (GeneralSecurityException e) {
+                GeyserImpl.getInstance().getLogger().debug("Could not pre-generate login key pairs: " + e.getMessage());
+            } finally {
+                this.refilling.set(false);
+            }
+        });
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp384r1"));
+        return generator.generateKeyPair();
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+        this.keyPairGenerator.shutdown();
+    }
+}
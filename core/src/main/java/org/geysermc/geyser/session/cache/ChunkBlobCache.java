@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import com.nukkitx.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.Getter;
+import lombok.Setter;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * Tracks the chunk blobs that have been referenced by ID in a {@link com.nukkitx.protocol.bedrock.packet.LevelChunkPacket}
+ * but have not yet been acknowledged by the client. The Bedrock client keeps its own on-disk cache of blobs, and will
+ * only ask for the ones it is missing with a {@link com.nukkitx.protocol.bedrock.packet.ClientCacheBlobStatusPacket}.
+ */
+public class ChunkBlobCache {
+    /**
+     * The maximum amount of blobs we'll hold onto for a client that doesn't respond to blob IDs.
+     */
+    private static final int MAX_PENDING_BLOBS = 4096;
+
+    private final GeyserSession session;
+
+    /**
+     * Whether the client has told us it supports the blob cache, and we are allowed to use it.
+     */
+    @Getter
+    @Setter
+    private boolean enabled = false;
+
+    private final Long2ObjectLinkedOpenHashMap<PendingBlob> pendingBlobs = new Long2ObjectLinkedOpenHashMap<>();
+
+    public ChunkBlobCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Holds onto the blob until the client either acknowledges or requests it.
+     * The blob must never be modified afterwards, as it is sent as-is if the client requests it.
+     *
+     * @param blobId the xxHash64 of the blob
+     * @return the blob ID to send to the client
+     */
+    public long cacheBlob(long blobId, byte[] blob) {
+        PendingBlob pending = this.pendingBlobs.getAndMoveToLast(blobId);
+        if (pending != null) {
+            // Identical sections (all air, all stone...) are very common - only store them once
+            pending.references++;
+            return blobId;
+        }
+
+        this.pendingBlobs.put(blobId, new PendingBlob(blob));
+
+        if (this.pendingBlobs.size() > MAX_PENDING_BLOBS) {
+            // The client is not keeping up with us; if it requests this later then it'll just have to do without
+            this.pendingBlobs.removeFirst();
+        }
+        return blobId;
+    }
+
+    /**
+     * Handles the client's response to blob IDs, sending any blobs it does not have cached.
+     *
+     * @param acks blob IDs that the client already had
+     * @param naks blob IDs that the client needs us to send
+     */
+    public void handleBlobStatus(LongList acks, LongList naks) {
+        for (int i = 0; i < acks.size(); i++) {
+            release(acks.getLong(i));
+        }
+
+        if (naks.isEmpty()) {
+            return;
+        }
+
+        ClientCacheMissResponsePacket response = new ClientCacheMissResponsePacket();
+        for (int i = 0; i < naks.size(); i++) {
+            long blobId = naks.getLong(i);
+            PendingBlob pending = this.pendingBlobs.get(blobId);
+            if (pending == null) {
+                session.getGeyser().getLogger().debug("Client requested unknown chunk blob " + blobId);
+                continue;
+            }
+            response.getBlobs().put(blobId, pending.data);
+            release(blobId);
+        }
+
+        if (!response.getBlobs().isEmpty()) {
+            session.sendUpstreamPacket(response);
+        }
+    }
+
+    private void release(long blobId) {
+        PendingBlob pending = this.pendingBlobs.get(blobId);
+        if (pending != null && --pending.references <= 0) {
+            this.pendingBlobs.remove(blobId);
+        }
+    }
+
+    private static final class PendingBlob {
+        private final byte[] data;
+        private int references = 1;
+
+        private PendingBlob(byte[] data) {
+            this.data = data;
+        }
+    }
+}
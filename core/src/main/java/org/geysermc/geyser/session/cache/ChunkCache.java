@@ -26,19 +26,45 @@
 package org.geysermc.geyser.session.cache;
 
 import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.block.BlockStateValues;
+import org.geysermc.geyser.level.chunk.CompactChunkSection;
 import org.geysermc.geyser.level.chunk.GeyserChunk;
+import org.geysermc.geyser.level.chunk.JavaChunkSection;
+import org.geysermc.geyser.level.chunk.PaletteChunkSection;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.util.HashUtils;
 import org.geysermc.geyser.util.MathUtils;
 
 public class ChunkCache {
+    private final GeyserSession session;
     private final boolean cache;
+    /**
+     * Whether sections are stored as {@link CompactChunkSection}s rather than as received from the server.
+     */
+    private final boolean compact;
     private final Long2ObjectMap<GeyserChunk> chunks;
+    /**
+     * If not null, the sections of chunks are shared with other sessions in the same world. The section arrays are
+     * still this session's own, so block updates only replace sections here.
+     */
+    private final SharedChunkStore sharedStore;
+    /**
+     * The shared world that the chunks of this cache currently belong to.
+     */
+    private SharedChunkStore.World sharedWorld;
+
+    /**
+     * A rough estimate of how many bytes of heap the cached chunks take up. Shared sections are not counted.
+     */
+    @Getter
+    private long memoryUsage;
 
     @Setter
     private int minY;
@@ -53,18 +79,57 @@ public class ChunkCache {
     private BedrockDimension bedrockDimension = BedrockDimension.OVERWORLD;
 
     public ChunkCache(GeyserSession session) {
+        this.session = session;
         this.cache = !session.getGeyser().getWorldManager().hasOwnChunkCache(); // To prevent Spigot from initializing
+        this.compact = session.getGeyser().getConfig().isCompactChunkCache();
         chunks = cache ? new Long2ObjectOpenHashMap<>() : null;
+        this.sharedStore = cache ? session.getGeyser().getSharedChunkStore() : null;
     }
 
-    public void addToCache(int x, int z, DataPalette[] chunks) {
+    /**
+     * @param javaData the Java chunk data the palettes were read from
+     */
+    public void addToCache(int x, int z, DataPalette[] chunks, byte[] javaData) {
         if (!cache) {
             return;
         }
 
+        // Chunks in the shared store must never be modified
+        addToCache(x, z, sharedStore != null ? GeyserChunk.shared(chunks) : GeyserChunk.from(chunks, compact), javaData);
+    }
+
+    /**
+     * @param sections sections that may be shared with other chunks; they are replaced rather than modified on
+     *                 block updates
+     * @param javaData the Java chunk data the sections were read from
+     */
+    public void addToCache(int x, int z, JavaChunkSection[] sections, byte[] javaData) {
+        if (!cache) {
+            return;
+        }
+
+        addToCache(x, z, new GeyserChunk(sections.clone()), javaData);
+    }
+
+    private void addToCache(int x, int z, GeyserChunk geyserChunk, byte[] javaData) {
         long chunkPosition = MathUtils.chunkPositionToLong(x, z);
-        GeyserChunk geyserChunk = GeyserChunk.from(chunks);
-        this.chunks.put(chunkPosition, geyserChunk);
+        if (sharedStore != null) {
+            if (sharedWorld == null) {
+                sharedWorld = sharedStore.joinWorld(new SharedChunkStore.WorldKey(session.remoteServer().address(),
+                        session.remoteServer().port(), session.getWorldName(), session.getDimension(), session.getHashedSeed()));
+            }
+            boolean alreadyHeld = this.chunks.containsKey(chunkPosition);
+            long dataHash = HashUtils.xxHash64(Unpooled.wrappedBuffer(javaData), 0, javaData.length);
+            GeyserChunk shared = sharedWorld.acquire(chunkPosition, geyserChunk, dataHash, alreadyHeld);
+            // Block updates go into this session's own copy of the section array, never into the shared chunk
+            geyserChunk = new GeyserChunk(shared.sections().clone());
+        }
+
+        GeyserChunk previous = this.chunks.put(chunkPosition, geyserChunk);
+        if (previous != null) {
+            memoryUsage -= previous.getMemoryUsage();
+        }
+        memoryUsage += geyserChunk.getMemoryUsage();
     }
 
     /**
@@ -90,21 +155,30 @@ public class ChunkCache {
             return;
         }
 
-        DataPalette palette = chunk.sections()[(y - minY) >> 4];
-        if (palette == null) {
+        int sectionY = (y - minY) >> 4;
+        JavaChunkSection section = chunk.sections()[sectionY];
+        if (section == null) {
             if (block != BlockStateValues.JAVA_AIR_ID) {
                 // A previously empty chunk, which is no longer empty as a block has been added to it
-                palette = DataPalette.createForChunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
-                chunk.sections()[(y - minY) >> 4] = palette;
+                if (compact) {
+                    section = CompactChunkSection.singleValue(BlockStateValues.JAVA_AIR_ID);
+                } else {
+                    DataPalette palette = DataPalette.createForChunk();
+                    // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
+                    palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
+                    section = new PaletteChunkSection(palette);
+                }
             } else {
                 // Nothing to update
                 return;
             }
+        } else {
+            memoryUsage -= section.getMemoryUsage();
         }
 
-        palette.set(x & 0xF, y & 0xF, z & 0xF, block);
+        section = section.set(x & 0xF, y & 0xF, z & 0xF, block);
+        chunk.sections()[sectionY] = section;
+        memoryUsage += section.getMemoryUsage();
     }
 
     public int getBlockAt(int x, int y, int z) {
@@ -122,7 +196,7 @@ public class ChunkCache {
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        DataPalette chunk = column.sections()[(y - minY) >> 4];
+        JavaChunkSection chunk = column.sections()[(y - minY) >> 4];
         if (chunk != null) {
             return chunk.get(x & 0xF, y & 0xF, z & 0xF);
         }
@@ -136,7 +210,13 @@ public class ChunkCache {
         }
 
         long chunkPosition = MathUtils.chunkPositionToLong(chunkX, chunkZ);
-        chunks.remove(chunkPosition);
+        GeyserChunk chunk = chunks.remove(chunkPosition);
+        if (chunk != null) {
+            memoryUsage -= chunk.getMemoryUsage();
+            if (sharedWorld != null) {
+                sharedWorld.release(chunkPosition);
+            }
+        }
     }
 
     /**
@@ -149,7 +229,15 @@ public class ChunkCache {
             return;
         }
 
+        if (sharedWorld != null) {
+            for (long chunkPosition : chunks.keySet()) {
+                sharedWorld.release(chunkPosition);
+            }
+            sharedWorld.leave();
+            sharedWorld = null;
+        }
         chunks.clear();
+        memoryUsage = 0;
     }
 
     public int getChunkMinY() {
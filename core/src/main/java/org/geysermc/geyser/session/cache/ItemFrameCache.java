@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import com.nukkitx.math.vector.Vector3i;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.geysermc.geyser.entity.type.ItemFrameEntity;
+import org.geysermc.geyser.util.MathUtils;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Item frames by block position, grouped per chunk so that loading a chunk only has to look at the frames inside it.
+ * Used for translating Bedrock block actions to Java entity actions.
+ */
+public final class ItemFrameCache {
+    private final Long2ObjectMap<Map<Vector3i, ItemFrameEntity>> itemFrames = new Long2ObjectOpenHashMap<>();
+    private int size = 0;
+
+    @Nullable
+    public ItemFrameEntity get(Vector3i position) {
+        if (this.size == 0) {
+            // Most block updates happen nowhere near an item frame
+            return null;
+        }
+        Map<Vector3i, ItemFrameEntity> chunk = this.itemFrames.get(chunkPosition(position));
+        return chunk != null ? chunk.get(position) : null;
+    }
+
+    public void put(Vector3i position, ItemFrameEntity itemFrame) {
+        Map<Vector3i, ItemFrameEntity> chunk = this.itemFrames.computeIfAbsent(chunkPosition(position), $ -> new Object2ObjectOpenHashMap<>());
+        if (chunk.put(position, itemFrame) == null) {
+            this.size++;
+        }
+    }
+
+    /**
+     * Removes the item frame at this position, if it is the given one.
+     */
+    public void remove(Vector3i position, ItemFrameEntity itemFrame) {
+        long chunkPosition = chunkPosition(position);
+        Map<Vector3i, ItemFrameEntity> chunk = this.itemFrames.get(chunkPosition);
+        if (chunk != null && chunk.remove(position, itemFrame)) {
+            this.size--;
+            if (chunk.isEmpty()) {
+                this.itemFrames.remove(chunkPosition);
+            }
+        }
+    }
+
+    /**
+     * @return the item frames in this chunk. Must not be modified.
+     */
+    public Collection<ItemFrameEntity> getItemFramesInChunk(int chunkX, int chunkZ) {
+        Map<Vector3i, ItemFrameEntity> chunk = this.itemFrames.get(MathUtils.chunkPositionToLong(chunkX, chunkZ));
+        return chunk != null ? chunk.values() : Collections.emptyList();
+    }
+
+    public void clear() {
+        this.itemFrames.clear();
+        this.size = 0;
+    }
+
+    private static long chunkPosition(Vector3i position) {
+        return MathUtils.chunkPositionToLong(position.getX() >> 4, position.getZ() >> 4);
+    }
+}
@@ -177,6 +177,19 @@ public final class WorldCache {
         ChunkUtils.updateBlock(session, blockState, position);
     }
 
+    /**
+     * Like {@link #updateServerCorrectBlockState(Vector3i, int)}, for many blocks in the same chunk section.
+     */
+    public void updateServerCorrectBlockStates(int[] blockStates, Vector3i[] positions) {
+        if (!this.unverifiedPredictions.isEmpty()) {
+            for (Vector3i position : positions) {
+                this.unverifiedPredictions.removeInt(position);
+            }
+        }
+
+        ChunkUtils.updateBlocks(session, blockStates, positions);
+    }
+
     public void endPredictionsUpTo(int sequence) {
         if (this.unverifiedPredictions.isEmpty()) {
             return;
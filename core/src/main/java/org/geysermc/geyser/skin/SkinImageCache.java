@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import io.netty.buffer.Unpooled;
+import org.geysermc.geyser.GeyserLogger;
+import org.geysermc.geyser.util.HashUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stores downloaded skins and capes on disk exactly as they are sent to Bedrock, so loading one from the cache is a
+ * single read with no image decoding.
+ * <p>
+ * Images are appended to one file, each record being:
+ * <ul>
+ *     <li>int - {@link #RECORD_MAGIC}</li>
+ *     <li>long - when the image was last used, in epoch milliseconds</li>
+ *     <li>short + bytes - the UTF-8 key</li>
+ *     <li>int + bytes - the image data</li>
+ *     <li>long - xxHash64 checksum of the key, data length and data</li>
+ * </ul>
+ * The index is rebuilt by reading through the records when the file is opened; records that fail their checksum are
+ * left out. Records that are replaced or expired stay in the file until the next {@link #expire(long)}, which rewrites
+ * it.
+ */
+final class SkinImageCache {
+    private static final int RECORD_MAGIC = 0x47534B32;
+    private static final int HEADER_LENGTH = Integer.BYTES + Long.BYTES + Short.BYTES;
+    /**
+     * Larger than any image we would store; anything bigger means the file is corrupt.
+     */
+    private static final int MAX_DATA_LENGTH = 1 << 24;
+    /**
+     * How stale the last used time on disk may get before it is written again. Images expire after days, so this
+     * doesn't need to be exact.
+     */
+    private static final long LAST_USED_PRECISION = TimeUnit.HOURS.toMillis(1);
+
+    private final Path file;
+    private final GeyserLogger logger;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * Reads and last-used updates share the lock; appending and rewriting the file take it exclusively.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    /**
+     * Set once {@link #close()} is called, after which the file must not be reopened.
+     */
+    private boolean closed;
+
+    SkinImageCache(Path file, GeyserLogger logger) throws IOException {
+        this.file = file;
+        this.logger = logger;
+        Files.createDirectories(file.getParent());
+        this.channel = open(file);
+        loadIndex();
+    }
+
+    /**
+     * @return the stored image, or null if there isn't one
+     */
+    @Nullable
+    byte[] get(String key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        this.lock.readLock().lock();
+        try {
+            if (this.entries.get(key) != entry) {
+                // Expired or replaced in the meantime
+                return null;
+            }
+
+            byte[] data = readData(entry);
+            if (data == null) {
+                this.logger.debug("Cached image " + key + " failed its checksum; discarding it");
+                this.entries.remove(key, entry);
+                return null;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now - entry.lastUsed > LAST_USED_PRECISION) {
+                entry.lastUsed = now;
+                this.channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, now), entry.position + Integer.BYTES);
+            }
+            return data;
+        } catch (IOException e) {
+            this.logger.debug("Unable to read cached image " + key + ": " + e.getMessage());
+            return null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the image was written
+     */
+    boolean put(String key, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                return false;
+            }
+            long position = this.channel.size();
+            ByteBuffer record = ByteBuffer.allocate(recordLength(keyBytes.length, data.length));
+            writeRecord(record, now, keyBytes, data);
+            record.flip();
+            writeFully(this.channel, record, position);
+            this.entries.put(key, new Entry(position, keyBytes.length, data.length, now));
+            return true;
+        } catch (IOException e) {
+            this.logger.error("Failed to write cached image " + key, e);
+            return false;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes images that have not been used for the given time, and rewrites the file without them. Images can
+     * still be read while the new file is written; only adding images has to wait.
+     *
+     * @return how many images were removed
+     */
+    int expire(long expireTime) {
+        long oldestAllowed = System.currentTimeMillis() - expireTime;
+        Path tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        Map<String, CopiedEntry> copied = new HashMap<>();
+        long position = 0;
+
+        this.lock.readLock().lock();
+        try (FileChannel output = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            if (this.closed) {
+                return 0;
+            }
+            for (Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                if (entry.lastUsed < oldestAllowed) {
+                    continue;
+                }
+                Entry copy = copyRecord(output, position, mapEntry.getKey(), entry);
+                if (copy != null) {
+                    copied.put(mapEntry.getKey(), new CopiedEntry(entry, copy));
+                    position += recordLength(copy.keyLength, copy.length);
+                }
+            }
+        } catch (IOException e) {
+            this.logger.error("Failed to clean up cached images", e);
+            return 0;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                Files.deleteIfExists(tempFile);
+                return 0;
+            }
+
+            Map<String, Entry> kept = new HashMap<>();
+            try (FileChannel output = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                for (Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+                    String key = mapEntry.getKey();
+                    Entry entry = mapEntry.getValue();
+                    CopiedEntry copiedEntry = copied.get(key);
+                    if (copiedEntry != null && copiedEntry.from == entry) {
+                        Entry copy = copiedEntry.to;
+                        if (copy.lastUsed != entry.lastUsed) {
+                            // Used while the new file was being written
+                            copy.lastUsed = entry.lastUsed;
+                            output.write(ByteBuffer.allocate(Long.BYTES).putLong(0, copy.lastUsed), copy.position + Integer.BYTES);
+                        }
+                        kept.put(key, copy);
+                    } else if (entry.lastUsed >= oldestAllowed) {
+                        // Added, or used again, while the new file was being written
+                        Entry copy = copyRecord(output, position, key, entry);
+                        if (copy != null) {
+                            kept.put(key, copy);
+                            position += recordLength(copy.keyLength, copy.length);
+                        }
+                    }
+                }
+            }
+
+            this.channel.close();
+            Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING);
+            this.channel = open(this.file);
+            int removed = this.entries.size() - kept.size();
+            this.entries.clear();
+            this.entries.putAll(kept);
+            return removed;
+        } catch (IOException e) {
+            this.logger.error("Failed to clean up cached images", e);
+            try {
+                if (!this.channel.isOpen()) {
+                    this.channel = open(this.file);
+                }
+            } catch (IOException ignored) {
+            }
+            return 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a copy of a record into another file.
+     *
+     * @return the entry of the copy, or null if the record failed its checksum and was not copied
+     */
+    @Nullable
+    private Entry copyRecord(FileChannel output, long position, String key, Entry entry) throws IOException {
+        byte[] data = readData(entry);
+        if (data == null) {
+            return null;
+        }
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(recordLength(keyBytes.length, entry.length));
+        writeRecord(record, entry.lastUsed, keyBytes, data);
+        record.flip();
+        writeFully(output, record, position);
+        return new Entry(position, keyBytes.length, entry.length, entry.lastUsed);
+    }
+
+    /**
+     * Closes the file. The cache can't be used afterwards.
+     */
+    void close() {
+        this.lock.writeLock().lock();
+        try {
+            this.closed = true;
+            this.entries.clear();
+            this.channel.close();
+        } catch (IOException e) {
+            this.logger.debug("Unable to close the image cache: " + e.getMessage());
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        long size = this.channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        while (position < size) {
+            header.clear();
+            if (!tryReadFully(header, position) || header.getInt(0) != RECORD_MAGIC) {
+                break;
+            }
+            long lastUsed = header.getLong(Integer.BYTES);
+            int keyLength = header.getShort(Integer.BYTES + Long.BYTES) & 0xFFFF;
+
+            length.clear();
+            if (!tryReadFully(length, position + HEADER_LENGTH + keyLength)) {
+                break;
+            }
+            int dataLength = length.getInt(0);
+            if (dataLength < 0 || dataLength > MAX_DATA_LENGTH) {
+                break;
+            }
+
+            long recordLength = recordLength(keyLength, dataLength);
+            if (position + recordLength > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(keyLength + Integer.BYTES + dataLength + Long.BYTES);
+            readFully(body, position + HEADER_LENGTH);
+            if (checksumMatches(body, keyLength + Integer.BYTES + dataLength)) {
+                // Later records replace earlier ones with the same key
+                this.entries.put(new String(body.array(), 0, keyLength, StandardCharsets.UTF_8),
+                        new Entry(position, keyLength, dataLength, lastUsed));
+            } else {
+                this.logger.debug("Skipping cached image at " + position + " as it failed its checksum");
+            }
+            position += recordLength;
+        }
+
+        if (position < size) {
+            // Most likely a write that was cut short, or a file from an older version; drop whatever is left of it
+            this.logger.debug("Truncating image cache from " + size + " to " + position + " bytes");
+            this.channel.truncate(position);
+        }
+    }
+
+    /**
+     * @return the data of the record, or null if it failed its checksum
+     */
+    @Nullable
+    private byte[] readData(Entry entry) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(entry.keyLength + Integer.BYTES + entry.length + Long.BYTES);
+        readFully(body, entry.position + HEADER_LENGTH);
+        if (!checksumMatches(body, entry.keyLength + Integer.BYTES + entry.length)) {
+            return null;
+        }
+        int dataStart = entry.keyLength + Integer.BYTES;
+        return Arrays.copyOfRange(body.array(), dataStart, dataStart + entry.length);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        if (!tryReadFully(buffer, position)) {
+            throw new IOException("Unexpected end of image cache");
+        }
+    }
+
+    private boolean tryReadFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static int recordLength(int keyLength, int dataLength) {
+        return HEADER_LENGTH + keyLength + Integer.BYTES + dataLength + Long.BYTES;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, long lastUsed, byte[] key, byte[] data) {
+        buffer.putInt(RECORD_MAGIC)
+                .putLong(lastUsed)
+                .putShort((short) key.length)
+                .put(key)
+                .putInt(data.length)
+                .put(data);
+        int checksummed = key.length + Integer.BYTES + data.length;
+        buffer.putLong(HashUtils.xxHash64(Unpooled.wrappedBuffer(buffer.array()), buffer.position() - checksummed, checksummed));
+    }
+
+    /**
+     * @param body the record after its header, ending with the checksum
+     * @param checksummed how many bytes the checksum covers
+     */
+    private static boolean checksumMatches(ByteBuffer body, int checksummed) {
+        return HashUtils.xxHash64(Unpooled.wrappedBuffer(body.array()), 0, checksummed) == body.getLong(checksummed);
+    }
+
+    private record CopiedEntry(Entry from, Entry to) {
+    }
+
+    private static final class Entry {
+        private final long position;
+        private final int keyLength;
+        private final int length;
+        private volatile long lastUsed;
+
+        Entry(long position, int keyLength, int length, long lastUsed) {
+            this.position = position;
+            this.keyLength = keyLength;
+            this.length = length;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
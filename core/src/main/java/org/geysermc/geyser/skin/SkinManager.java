@@ -29,6 +29,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nukkitx.protocol.bedrock.data.skin.ImageData;
 import com.nukkitx.protocol.bedrock.data.skin.SerializedSkin;
 import com.nukkitx.protocol.bedrock.packet.PlayerListPacket;
@@ -46,9 +48,17 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class SkinManager {
+    /**
+     * Skins as sent to Bedrock, shared between every session that shows them.
+     */
+    private static final Cache<SerializedSkinKey, SerializedSkin> SERIALIZED_SKINS = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .expireAfterAccess(5, TimeUnit.MINUTES)
+            .build();
 
     /**
      * Builds a Bedrock player list entry from our existing, cached Bedrock skin information
@@ -161,10 +171,36 @@ public class SkinManager {
     }
 
     private static SerializedSkin getSkin(String skinId, SkinProvider.Skin skin, SkinProvider.Cape cape, SkinProvider.SkinGeometry geometry) {
-        return SerializedSkin.of(skinId, "", geometry.geometryName(),
-                ImageData.of(skin.getSkinData()), Collections.emptyList(),
-                ImageData.of(cape.capeData()), geometry.geometryData(),
-                "", true, false, false, cape.capeId(), skinId);
+        SerializedSkinKey key = new SerializedSkinKey(skinId, skin, cape, geometry);
+        SerializedSkin serializedSkin = SERIALIZED_SKINS.getIfPresent(key);
+        if (serializedSkin == null) {
+            serializedSkin = SerializedSkin.of(skinId, "", geometry.geometryName(),
+                    ImageData.of(skin.getSkinData()), Collections.emptyList(),
+                    ImageData.of(cape.capeData()), geometry.geometryData(),
+                    "", true, false, false, cape.capeId(), skinId);
+            SERIALIZED_SKINS.put(key, serializedSkin);
+        }
+        return serializedSkin;
+    }
+
+    /**
+     * Skins, capes and geometry are compared by identity, as SkinProvider keeps one instance of each per texture.
+     */
+    private record SerializedSkinKey(String skinId, SkinProvider.Skin skin, SkinProvider.Cape cape, SkinProvider.SkinGeometry geometry) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SerializedSkinKey other)) return false;
+            return skin == other.skin && cape == other.cape && geometry == other.geometry && skinId.equals(other.skinId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = skinId.hashCode();
+            result = 31 * result + System.identityHashCode(skin);
+            result = 31 * result + System.identityHashCode(cape);
+            return 31 * result + System.identityHashCode(geometry);
+        }
     }
 
     public static void requestAndHandleSkinAndCape(PlayerEntity entity, GeyserSession session,
@@ -217,6 +253,14 @@ public class SkinManager {
         }
     }
 
+    /**
+     * The result of parsing a textures property, kept on the entity so it isn't decoded every time its skin is sent.
+     *
+     * @param data null if the property could not be parsed
+     */
+    public record ParsedTextures(String texturesProperty, @Nullable GameProfileData data) {
+    }
+
     public record GameProfileData(String skinUrl, String capeUrl, boolean isAlex) {
         /**
          * Generate the GameProfileData from the given CompoundTag representing a GameProfile
@@ -262,8 +306,14 @@ public class SkinManager {
                 return null;
             }
 
+            ParsedTextures parsedTextures = entity.getParsedTextures();
+            if (parsedTextures != null && texturesProperty.equals(parsedTextures.texturesProperty())) {
+                return parsedTextures.data();
+            }
+
+            GameProfileData data = null;
             try {
-                return loadFromJson(texturesProperty);
+                data = loadFromJson(texturesProperty);
             } catch (Exception exception) {
                 if (entity instanceof SkullPlayerEntity skullEntity) {
                     GeyserImpl.getInstance().getLogger().debug("Something went wrong while processing skin for skull at " + skullEntity.getSkullPosition() + " with Value: " + texturesProperty);
@@ -274,7 +324,8 @@ public class SkinManager {
                     exception.printStackTrace();
                 }
             }
-            return null;
+            entity.setParsedTextures(new ParsedTextures(texturesProperty, data));
+            return data;
         }
 
         private static GameProfileData loadFromJson(String encodedJson) throws IOException, IllegalArgumentException {
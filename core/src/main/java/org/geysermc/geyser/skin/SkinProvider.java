@@ -52,6 +52,7 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Predicate;
@@ -82,6 +83,11 @@ public class SkinProvider {
 
     private static final Map<UUID, SkinGeometry> cachedGeometry = new ConcurrentHashMap<>();
 
+    /**
+     * Downloaded images, ready to send to Bedrock. Null if caching images is disabled.
+     */
+    private static volatile SkinImageCache imageCache;
+
     /**
      * Citizens NPCs use UUID version 2, while legitimate Minecraft players use version 4, and
      * offline mode players use version 3.
@@ -133,18 +139,47 @@ public class SkinProvider {
         WEARING_CUSTOM_SKULL_SLIM = new SkinGeometry("{\"geometry\" :{\"default\" :\"geometry.humanoid.wearingCustomSkullSlim\"}}", wearingCustomSkullSlim, false);
     }
 
+    /**
+     * Closes the image cache, if it is open. It is opened again by {@link #registerCacheImageTask(GeyserImpl)}.
+     */
+    public static void shutdown() {
+        SkinImageCache cache = imageCache;
+        if (cache != null) {
+            imageCache = null;
+            cache.close();
+        }
+    }
+
     public static void registerCacheImageTask(GeyserImpl geyser) {
         // Schedule Daily Image Expiry if we are caching them
         if (geyser.getConfig().getCacheImages() > 0) {
+            if (imageCache == null) {
+                try {
+                    imageCache = new SkinImageCache(getImageCacheFolder().resolve("images.dat"), geyser.getLogger());
+                } catch (IOException e) {
+                    geyser.getLogger().error("Unable to open the image cache", e);
+                }
+            }
+
             geyser.getScheduledThread().scheduleAtFixedRate(() -> {
-                File cacheFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").toFile();
+                final long expireTime = ((long) GeyserImpl.getInstance().getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
+                SkinImageCache cache = imageCache;
+                if (cache != null) {
+                    int count = cache.expire(expireTime);
+                    if (count > 0) {
+                        GeyserImpl.getInstance().getLogger().debug(String.format("Removed %d cached images as they have expired", count));
+                    }
+                }
+
+                File cacheFolder = getImageCacheFolder().toFile();
                 if (!cacheFolder.exists()) {
                     return;
                 }
 
+                // Images cached by older versions of Geyser, which are moved into the image cache when they are used
                 int count = 0;
-                final long expireTime = ((long) GeyserImpl.getInstance().getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
-                for (File imageFile : Objects.requireNonNull(cacheFolder.listFiles())) {
+                File[] legacyImageFiles = cacheFolder.listFiles((dir, name) -> name.endsWith(".png"));
+                for (File imageFile : Objects.requireNonNull(legacyImageFiles)) {
                     if (imageFile.lastModified() < System.currentTimeMillis() - expireTime) {
                         //noinspection ResultOfMethodCallIgnored
                         imageFile.delete();
@@ -528,14 +563,24 @@ public class SkinProvider {
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
     private static byte[] requestImage(String imageUrl, CapeProvider provider) throws Exception {
+        // Skins and capes are processed differently, so they are cached separately too
+        String cacheKey = (provider != null ? "cape:" : "skin:") + imageUrl;
+        SkinImageCache cache = imageCache;
+        if (cache != null) {
+            byte[] data = cache.get(cacheKey);
+            if (data != null) {
+                GeyserImpl.getInstance().getLogger().debug("Read cached image for " + imageUrl);
+                return data;
+            }
+        }
+
         BufferedImage image = null;
 
-        // First see if we have a cached file. We also update the modification stamp so we know when the file was last used
-        File imageFile = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()).toString() + ".png").toFile();
+        // See if an older version of Geyser cached this image as a PNG
+        File imageFile = getImageCacheFolder().resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()).toString() + ".png").toFile();
         if (imageFile.exists()) {
             try {
                 GeyserImpl.getInstance().getLogger().debug("Reading cached image from file " + imageFile.getPath() + " for " + imageUrl);
-                imageFile.setLastModified(System.currentTimeMillis());
                 image = ImageIO.read(imageFile);
             } catch (IOException ignored) {}
         }
@@ -544,17 +589,6 @@ public class SkinProvider {
         if (image == null) {
             image = downloadImage(imageUrl, provider);
             GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
-
-            // Write to cache if we are allowed
-            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
-                imageFile.getParentFile().mkdirs();
-                try {
-                    ImageIO.write(image, "png", imageFile);
-                    GeyserImpl.getInstance().getLogger().debug("Writing cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                } catch (IOException e) {
-                    GeyserImpl.getInstance().getLogger().error("Failed to write cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                }
-            }
         }
 
         // if the requested image is a cape
@@ -589,9 +623,22 @@ public class SkinProvider {
 
         byte[] data = bufferedImageToImageData(image);
         image.flush();
+
+        // Write to cache if we are allowed
+        if (cache != null && cache.put(cacheKey, data)) {
+            GeyserImpl.getInstance().getLogger().debug("Writing cached image for " + imageUrl);
+            if (imageFile.exists()) {
+                // It'll be in the image cache from now on
+                imageFile.delete();
+            }
+        }
         return data;
     }
 
+    private static Path getImageCacheFolder() {
+        return GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images");
+    }
+
     /**
      * Request textures from a player's UUID
      *
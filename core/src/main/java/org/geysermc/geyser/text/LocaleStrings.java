@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.text;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Map;
+
+/**
+ * The strings of one Minecraft locale. Translation keys are stored once in an index shared by every locale, and each
+ * locale only keeps an array of its values addressed by key ID.
+ */
+public final class LocaleStrings {
+    private static final Object KEY_LOCK = new Object();
+    /**
+     * Never modified once published; new keys are added to a copy under {@link #KEY_LOCK}.
+     */
+    private static volatile Object2IntMap<String> KEY_IDS = newKeyIndex(0);
+
+    private final String[] values;
+
+    private LocaleStrings(String[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @param strings the translation keys and values of a locale
+     */
+    public static LocaleStrings of(Map<String, String> strings) {
+        Object2IntMap<String> keyIds = KEY_IDS;
+        if (!keyIds.keySet().containsAll(strings.keySet())) {
+            synchronized (KEY_LOCK) {
+                keyIds = KEY_IDS;
+                Object2IntOpenHashMap<String> newKeyIds = null;
+                for (String key : strings.keySet()) {
+                    if (!keyIds.containsKey(key)) {
+                        if (newKeyIds == null) {
+                            newKeyIds = newKeyIndex(keyIds.size() + strings.size());
+                            newKeyIds.putAll(keyIds);
+                        }
+                        newKeyIds.putIfAbsent(key, newKeyIds.size());
+                    }
+                }
+                if (newKeyIds != null) {
+                    newKeyIds.trim();
+                    KEY_IDS = keyIds = newKeyIds;
+                }
+            }
+        }
+
+        String[] values = new String[keyIds.size()];
+        for (Map.Entry<String, String> entry : strings.entrySet()) {
+            values[keyIds.getInt(entry.getKey())] = entry.getValue();
+        }
+        return new LocaleStrings(values);
+    }
+
+    /**
+     * @return the value of the given translation key, or null if this locale doesn't have it
+     */
+    public String get(String key) {
+        int id = KEY_IDS.getInt(key);
+        // Keys added after this locale was loaded are past the end of the array
+        return id >= 0 && id < this.values.length ? this.values[id] : null;
+    }
+
+    public String getOrDefault(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Object2IntOpenHashMap<String> newKeyIndex(int expected) {
+        Object2IntOpenHashMap<String> keyIds = new Object2IntOpenHashMap<>(expected);
+        keyIds.defaultReturnValue(-1);
+        return keyIds;
+    }
+}
@@ -37,10 +37,20 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MinecraftLocale {
 
-    public static final Map<String, Map<String, String>> LOCALE_MAPPINGS = new HashMap<>();
+    /**
+     * Loaded locales, keyed by Bedrock locale.
+     */
+    public static final Map<String, LocaleStrings> LOCALE_MAPPINGS = new ConcurrentHashMap<>();
+
+    /**
+     * Locales that are loading or have been loaded, so each one is only downloaded and parsed once.
+     */
+    private static final Map<String, CompletableFuture<Void>> LOCALE_LOADS = new ConcurrentHashMap<>();
 
     static {
         // Create the locales folder
@@ -67,17 +77,47 @@ public class MinecraftLocale {
     }
 
     /**
-     * Downloads a locale from Mojang if its not already loaded
+     * Downloads a locale from Mojang if its not already loaded. This happens in the background; until it is done,
+     * translations fall back to the default locale.
      *
      * @param locale Locale to download and load
+     * @return a future completed once the locale has been loaded, or completed exceptionally if it failed to load
      */
-    public static void downloadAndLoadLocale(String locale) {
-        locale = locale.toLowerCase(Locale.ROOT);
-        if (locale.equals("nb_no")) {
+    public static CompletableFuture<Void> downloadAndLoadLocale(String locale) {
+        String javaLocale = locale.toLowerCase(Locale.ROOT);
+        if (javaLocale.equals("nb_no")) {
             // Different locale code - https://minecraft.fandom.com/wiki/Language
-            locale = "no_no";
+            javaLocale = "no_no";
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = LOCALE_LOADS.putIfAbsent(javaLocale, future);
+        if (existing != null) {
+            return existing;
         }
 
+        String key = javaLocale;
+        GeyserImpl.getInstance().getScheduledThread().execute(() -> {
+            try {
+                if (!downloadAndLoadLocale0(key)) {
+                    // The download failed; let the next player with this locale try again
+                    LOCALE_LOADS.remove(key, future);
+                }
+                future.complete(null);
+            } catch (Throwable throwable) {
+                GeyserImpl.getInstance().getLogger().error("Unable to load locale " + key, throwable);
+                // Let the next player with this locale try again
+                LOCALE_LOADS.remove(key, future);
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return false if the locale should be downloaded again next time it is needed
+     */
+    private static boolean downloadAndLoadLocale0(String locale) {
         // Check the locale isn't already loaded
         if (!AssetUtils.isAssetKnown("minecraft/lang/" + locale + ".json") && !locale.equals("en_us")) {
             if (loadLocale(locale)) {
@@ -85,7 +125,7 @@ public class MinecraftLocale {
             } else {
                 GeyserImpl.getInstance().getLogger().warning(GeyserLocale.getLocaleStringLog("geyser.locale.fail.invalid", locale));
             }
-            return;
+            return true;
         }
 
         GeyserImpl.getInstance().getLogger().debug("Downloading and loading locale: " + locale);
@@ -93,7 +133,9 @@ public class MinecraftLocale {
         downloadLocale(locale);
         if (!loadLocale(locale)) {
             GeyserImpl.getInstance().getLogger().warning(GeyserLocale.getLocaleStringLog("geyser.locale.fail.missing", locale));
+            return false;
         }
+        return true;
     }
 
     /**
@@ -161,7 +203,7 @@ public class MinecraftLocale {
 
             // Parse all the locale fields
             Iterator<Map.Entry<String, JsonNode>> localeIterator = localeObj.fields();
-            Map<String, String> langMap = new HashMap<>();
+            Map<String, String> langMap = new HashMap<>(localeObj.size());
             while (localeIterator.hasNext()) {
                 Map.Entry<String, JsonNode> entry = localeIterator.next();
                 langMap.put(entry.getKey(), entry.getValue().asText());
@@ -174,7 +216,7 @@ public class MinecraftLocale {
             }
 
             // Insert the locale into the mappings
-            LOCALE_MAPPINGS.put(bedrockLocale, langMap);
+            LOCALE_MAPPINGS.put(bedrockLocale, LocaleStrings.of(langMap));
 
             try {
                 localeStream.close();
@@ -195,7 +237,7 @@ public class MinecraftLocale {
      * @return Translated string or the original message if it was not found in the given locale
      */
     public static String getLocaleString(String messageText, String locale) {
-        Map<String, String> localeStrings = LOCALE_MAPPINGS.get(locale.toLowerCase(Locale.ROOT));
+        LocaleStrings localeStrings = LOCALE_MAPPINGS.get(locale.toLowerCase(Locale.ROOT));
         if (localeStrings == null) {
             localeStrings = LOCALE_MAPPINGS.get(GeyserLocale.getDefaultLocale());
             if (localeStrings == null) {
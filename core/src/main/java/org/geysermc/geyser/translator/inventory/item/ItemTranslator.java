@@ -27,6 +27,8 @@ package org.geysermc.geyser.translator.inventory.item;
 
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.ItemStack;
 import com.github.steveice10.opennbt.tag.builtin.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nukkitx.nbt.NbtList;
 import com.nukkitx.nbt.NbtMap;
 import com.nukkitx.nbt.NbtMapBuilder;
@@ -49,11 +51,20 @@ import org.geysermc.geyser.util.FileUtils;
 import javax.annotation.Nonnull;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public abstract class ItemTranslator {
     private static final Int2ObjectMap<ItemTranslator> ITEM_STACK_TRANSLATORS = new Int2ObjectOpenHashMap<>();
     private static final List<NbtItemStackTranslator> NBT_TRANSLATORS;
+    /**
+     * Translated items, shared between sessions. Translating the same stack again - such as when a chest full of it is
+     * opened, or every player is given the same kit - is then just a lookup.
+     */
+    private static final Cache<TranslatedItemKey, ItemData> TRANSLATED_ITEMS = CacheBuilder.newBuilder()
+            .maximumSize(8192)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
 
     protected ItemTranslator() {
     }
@@ -141,6 +152,35 @@ public abstract class ItemTranslator {
             return ItemData.AIR;
         }
 
+        if (!isCacheable(session, bedrockItem)) {
+            return translateToBedrock(session, stack, bedrockItem);
+        }
+
+        TranslatedItemKey key = new TranslatedItemKey(stack.getId(), stack.getAmount(), stack.getNbt(), session.getItemMappings(),
+                session.locale(), session.isAdvancedTooltips());
+        ItemData itemData = TRANSLATED_ITEMS.getIfPresent(key);
+        if (itemData == null) {
+            itemData = translateToBedrock(session, stack, bedrockItem);
+            if (key.nbt() != null) {
+                // Don't let later changes to the Java item change the key
+                key = new TranslatedItemKey(key.javaId(), key.amount(), key.nbt().clone(), key.mappings(), key.locale(), key.advancedTooltips());
+            }
+            TRANSLATED_ITEMS.put(key, itemData);
+        }
+        return itemData;
+    }
+
+    /**
+     * @return whether this item translates the same for every session with the same locale, mappings and tooltip setting
+     */
+    private static boolean isCacheable(GeyserSession session, ItemMapping mapping) {
+        // Lodestone compasses are given a tracking ID from the session's own lodestone cache
+        return !mapping.getJavaIdentifier().equals("minecraft:compass")
+                // Until the player's locale has loaded, names are translated using the default locale
+                && MinecraftLocale.LOCALE_MAPPINGS.containsKey(session.locale().toLowerCase(Locale.ROOT));
+    }
+
+    private static ItemData translateToBedrock(GeyserSession session, ItemStack stack, ItemMapping bedrockItem) {
         CompoundTag nbt = stack.getNbt() != null ? stack.getNbt().clone() : null;
 
         // This is a fallback for maps with no nbt
@@ -187,6 +227,29 @@ public abstract class ItemTranslator {
         return builder.build();
     }
 
+    /**
+     * Item mappings are compared by identity, as each protocol version has exactly one instance.
+     */
+    private record TranslatedItemKey(int javaId, int amount, CompoundTag nbt, ItemMappings mappings, String locale,
+                                     boolean advancedTooltips) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TranslatedItemKey other)) return false;
+            return javaId == other.javaId && amount == other.amount && advancedTooltips == other.advancedTooltips
+                    && mappings == other.mappings && locale.equals(other.locale) && Objects.equals(nbt, other.nbt);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * javaId + amount;
+            result = 31 * result + Objects.hashCode(nbt);
+            result = 31 * result + System.identityHashCode(mappings);
+            result = 31 * result + locale.hashCode();
+            return 31 * result + Boolean.hashCode(advancedTooltips);
+        }
+    }
+
     private static CompoundTag addAdvancedTooltips(CompoundTag nbt, ItemMapping mapping, String language) {
         CompoundTag newNbt = nbt;
         if (newNbt == null) {
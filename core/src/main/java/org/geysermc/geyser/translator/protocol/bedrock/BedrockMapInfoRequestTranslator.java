@@ -42,6 +42,9 @@ public class BedrockMapInfoRequestTranslator extends PacketTranslator<MapInfoReq
 
         ClientboundMapItemDataPacket mapPacket = session.getStoredMaps().remove(mapId);
         if (mapPacket != null) {
+            // Nothing left to apply partial updates to
+            session.releaseMapCanvas(mapId);
+
             // Delay the packet 100ms to prevent the client from ignoring the packet
             session.scheduleInEventLoop(() -> session.sendUpstreamPacket(mapPacket),
                     100, TimeUnit.MILLISECONDS);
@@ -43,21 +43,31 @@ public class BedrockRequestAbilityTranslator extends PacketTranslator<RequestAbi
     @Override
     public void translate(GeyserSession session, RequestAbilityPacket packet) {
         if (packet.getAbility() == Ability.FLYING) {
-            boolean isFlying = packet.isBoolValue();
-            if (!isFlying && session.getGameMode() == GameMode.SPECTATOR) {
-                // We should always be flying in spectator mode
-                session.sendAdventureSettings();
-                return;
-            } else if (isFlying && session.getPlayerEntity().getFlag(EntityFlag.SWIMMING) && session.getCollisionManager().isPlayerInWater()) {
-                // As of 1.18.1, Java Edition cannot fly while in water, but it can fly while crawling
-                // If this isn't present, swimming on a 1.13.2 server and then attempting to fly will put you into a flying/swimming state that is invalid on JE
-                session.sendAdventureSettings();
-                return;
-            }
+            // Handled in the same order as movement, so quickly toggling flight can't apply the requests out of order,
+            // and the blocks around the player are available for the water check without waiting
+            session.getCollisionManager().runWhenMovementBlocksLoaded(session.getPlayerEntity().getPosition(),
+                    () -> handleFlyingRequest(session, packet.isBoolValue()));
+        }
+    }
 
-            session.setFlying(isFlying);
-            ServerboundPlayerAbilitiesPacket abilitiesPacket = new ServerboundPlayerAbilitiesPacket(isFlying);
-            session.sendDownstreamPacket(abilitiesPacket);
+    private static void handleFlyingRequest(GeyserSession session, boolean isFlying) {
+        if (!isFlying && session.getGameMode() == GameMode.SPECTATOR) {
+            // We should always be flying in spectator mode
+            session.sendAdventureSettings();
+            return;
+        } else if (isFlying && session.getPlayerEntity().getFlag(EntityFlag.SWIMMING) && session.getCollisionManager().isPlayerInWater()) {
+            // As of 1.18.1, Java Edition cannot fly while in water, but it can fly while crawling
+            // If this isn't present, swimming on a 1.13.2 server and then attempting to fly will put you into a flying/swimming state that is invalid on JE
+            session.sendAdventureSettings();
+            return;
         }
+
+        setFlying(session, isFlying);
+    }
+
+    private static void setFlying(GeyserSession session, boolean isFlying) {
+        session.setFlying(isFlying);
+        ServerboundPlayerAbilitiesPacket abilitiesPacket = new ServerboundPlayerAbilitiesPacket(isFlying);
+        session.sendDownstreamPacket(abilitiesPacket);
     }
 }
@@ -45,9 +45,15 @@ public class BedrockMovePlayerTranslator extends PacketTranslator<MovePlayerPack
 
     @Override
     public void translate(GeyserSession session, MovePlayerPacket packet) {
-        SessionPlayerEntity entity = session.getPlayerEntity();
         if (!session.isSpawned()) return;
 
+        // Collision checks must not wait for blocks to be fetched on the event loop
+        session.getCollisionManager().runWhenMovementBlocksLoaded(packet.getPosition(), () -> handleMovement(session, packet));
+    }
+
+    private void handleMovement(GeyserSession session, MovePlayerPacket packet) {
+        SessionPlayerEntity entity = session.getPlayerEntity();
+
         session.setLastMovementTimestamp(System.currentTimeMillis());
 
         // Send book update before the player moves
@@ -30,6 +30,8 @@ import com.github.steveice10.mc.protocol.data.game.command.CommandParser;
 import com.github.steveice10.mc.protocol.data.game.command.properties.ResourceProperties;
 import com.github.steveice10.mc.protocol.data.game.entity.attribute.AttributeType;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.ClientboundCommandsPacket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nukkitx.protocol.bedrock.data.command.CommandData;
 import com.nukkitx.protocol.bedrock.data.command.CommandEnumData;
 import com.nukkitx.protocol.bedrock.data.command.CommandParam;
@@ -51,12 +53,14 @@ import org.geysermc.geyser.command.GeyserCommandManager;
 import org.geysermc.geyser.inventory.item.Enchantment;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.registry.type.ItemMappings;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.util.EntityUtils;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Translator(packet = ClientboundCommandsPacket.class)
 public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommandsPacket> {
@@ -67,6 +71,15 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
     private static final String[] VALID_COLORS;
     private static final String[] VALID_SCOREBOARD_SLOTS;
 
+    /**
+     * Command trees translated for recent sessions. Players with the same permissions usually receive identical trees,
+     * which then only need to be translated once.
+     */
+    private static final Cache<CommandTreeKey, Map<BedrockCommandInfo, Set<String>>> TRANSLATED_TREES = CacheBuilder.newBuilder()
+            .maximumSize(64)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     private static final Hash.Strategy<BedrockCommandInfo> PARAM_STRATEGY = new Hash.Strategy<>() {
         @Override
         public int hashCode(BedrockCommandInfo o) {
@@ -117,38 +130,9 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
             return;
         }
 
-        GeyserCommandManager manager = session.getGeyser().commandManager();
-        CommandNode[] nodes = packet.getNodes();
+        // Copied, as event listeners may remove commands
+        Map<BedrockCommandInfo, Set<String>> commands = new Object2ObjectOpenCustomHashMap<>(getCommands(session, packet), PARAM_STRATEGY);
         List<CommandData> commandData = new ArrayList<>();
-        IntSet commandNodes = new IntOpenHashSet();
-        Set<String> knownAliases = new HashSet<>();
-        Map<BedrockCommandInfo, Set<String>> commands = new Object2ObjectOpenCustomHashMap<>(PARAM_STRATEGY);
-        Int2ObjectMap<List<CommandNode>> commandArgs = new Int2ObjectOpenHashMap<>();
-
-        // Get the first node, it should be a root node
-        CommandNode rootNode = nodes[packet.getFirstNodeIndex()];
-
-        // Loop through the root nodes to get all commands
-        for (int nodeIndex : rootNode.getChildIndices()) {
-            CommandNode node = nodes[nodeIndex];
-
-            // Make sure we don't have duplicated commands (happens if there is more than 1 root node)
-            if (!commandNodes.add(nodeIndex) || !knownAliases.add(node.getName().toLowerCase(Locale.ROOT))) continue;
-
-            // Get and update the commandArgs list with the found arguments
-            if (node.getChildIndices().length >= 1) {
-                for (int childIndex : node.getChildIndices()) {
-                    commandArgs.computeIfAbsent(nodeIndex, ($) -> new ArrayList<>()).add(nodes[childIndex]);
-                }
-            }
-
-            // Get and parse all params
-            CommandParamData[][] params = getParams(session, nodes[nodeIndex], nodes);
-
-            // Insert the alias name into the command list
-            commands.computeIfAbsent(new BedrockCommandInfo(node.getName().toLowerCase(Locale.ROOT), manager.description(node.getName().toLowerCase(Locale.ROOT)), params),
-                    index -> new HashSet<>()).add(node.getName().toLowerCase());
-        }
 
         var eventBus = session.getGeyser().eventBus();
 
@@ -189,6 +173,57 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
         session.sendUpstreamPacket(availableCommandsPacket);
     }
 
+    /**
+     * Gets the translated commands for this command tree, translating it if no session with the same tree and relevant
+     * state has done so recently. The returned map must not be modified.
+     */
+    private static Map<BedrockCommandInfo, Set<String>> getCommands(GeyserSession session, ClientboundCommandsPacket packet) {
+        CommandTreeKey key = CommandTreeKey.from(session, packet);
+        Map<BedrockCommandInfo, Set<String>> commands = TRANSLATED_TREES.getIfPresent(key);
+        if (commands == null) {
+            commands = translateCommands(session, packet);
+            TRANSLATED_TREES.put(key, commands);
+        } else {
+            session.getGeyser().getLogger().debug("Reusing translated command tree of " + commands.size() + " commands");
+        }
+        return commands;
+    }
+
+    private static Map<BedrockCommandInfo, Set<String>> translateCommands(GeyserSession session, ClientboundCommandsPacket packet) {
+        GeyserCommandManager manager = session.getGeyser().commandManager();
+        CommandNode[] nodes = packet.getNodes();
+        IntSet commandNodes = new IntOpenHashSet();
+        Set<String> knownAliases = new HashSet<>();
+        Map<BedrockCommandInfo, Set<String>> commands = new Object2ObjectOpenCustomHashMap<>(PARAM_STRATEGY);
+        Int2ObjectMap<List<CommandNode>> commandArgs = new Int2ObjectOpenHashMap<>();
+
+        // Get the first node, it should be a root node
+        CommandNode rootNode = nodes[packet.getFirstNodeIndex()];
+
+        // Loop through the root nodes to get all commands
+        for (int nodeIndex : rootNode.getChildIndices()) {
+            CommandNode node = nodes[nodeIndex];
+
+            // Make sure we don't have duplicated commands (happens if there is more than 1 root node)
+            if (!commandNodes.add(nodeIndex) || !knownAliases.add(node.getName().toLowerCase(Locale.ROOT))) continue;
+
+            // Get and update the commandArgs list with the found arguments
+            if (node.getChildIndices().length >= 1) {
+                for (int childIndex : node.getChildIndices()) {
+                    commandArgs.computeIfAbsent(nodeIndex, ($) -> new ArrayList<>()).add(nodes[childIndex]);
+                }
+            }
+
+            // Get and parse all params
+            CommandParamData[][] params = getParams(session, nodes[nodeIndex], nodes);
+
+            // Insert the alias name into the command list
+            commands.computeIfAbsent(new BedrockCommandInfo(node.getName().toLowerCase(Locale.ROOT), manager.description(node.getName().toLowerCase(Locale.ROOT)), params),
+                    index -> new HashSet<>()).add(node.getName().toLowerCase());
+        }
+        return commands;
+    }
+
     /**
      * Build the command parameter array for the given command
      *
@@ -274,6 +309,48 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
     {
     }
 
+    /**
+     * A command tree, plus the session state its translation depends on.
+     *
+     * @param itemMappings compared by identity, as each protocol version has exactly one instance
+     * @param teams only set if the tree has a team argument
+     */
+    private record CommandTreeKey(CommandNode[] nodes, int firstNodeIndex, ItemMappings itemMappings, List<String> levels,
+                                  List<String> teams, int hash) {
+
+        static CommandTreeKey from(GeyserSession session, ClientboundCommandsPacket packet) {
+            CommandNode[] nodes = packet.getNodes();
+            List<String> levels = session.getLevels() != null ? Arrays.asList(session.getLevels()) : null;
+            List<String> teams = null;
+            for (CommandNode node : nodes) {
+                if (node.getParser() == CommandParser.TEAM) {
+                    teams = Arrays.asList(session.getWorldCache().getScoreboard().getTeamNames());
+                    break;
+                }
+            }
+
+            int hash = Arrays.hashCode(nodes);
+            hash = 31 * hash + packet.getFirstNodeIndex();
+            hash = 31 * hash + System.identityHashCode(session.getItemMappings());
+            hash = 31 * hash + Objects.hashCode(levels);
+            hash = 31 * hash + Objects.hashCode(teams);
+            return new CommandTreeKey(nodes, packet.getFirstNodeIndex(), session.getItemMappings(), levels, teams, hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CommandTreeKey other)) return false;
+            return hash == other.hash && firstNodeIndex == other.firstNodeIndex && itemMappings == other.itemMappings
+                    && Objects.equals(levels, other.levels) && Objects.equals(teams, other.teams) && Arrays.equals(nodes, other.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     /**
      * Stores command completions so we don't have to rebuild the same values multiple times.
      */
@@ -91,6 +91,7 @@ public class JavaLoginTranslator extends PacketTranslator<ClientboundLoginPacket
             session.getWorldCache().removeScoreboard();
         }
         session.setWorldName(packet.getWorldName());
+        session.setHashedSeed(packet.getHashedSeed());
         session.setLevels(packet.getWorldNames());
 
         BiomeTranslator.loadServerBiomes(session, packet.getRegistry());
@@ -81,6 +81,12 @@ public class JavaRespawnTranslator extends PacketTranslator<ClientboundRespawnPa
             session.setThunder(false);
         }
 
+        if (packet.getHashedSeed() != session.getHashedSeed()) {
+            // Most likely another server behind a proxy with the same world names; its chunks will be sent again
+            session.setHashedSeed(packet.getHashedSeed());
+            session.getChunkCache().clear();
+        }
+
         String newDimension = packet.getDimension();
         if (!session.getDimension().equals(newDimension) || !packet.getWorldName().equals(session.getWorldName())) {
             // Switching to a new world (based off the world name change or new dimension); send a fake dimension change
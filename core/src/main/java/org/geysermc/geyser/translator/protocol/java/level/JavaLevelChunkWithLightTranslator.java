@@ -54,12 +54,18 @@ import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.level.chunk.ChunkSectionTranscoder;
+import org.geysermc.geyser.level.chunk.EncodedChunk;
+import org.geysermc.geyser.level.chunk.EncodedChunkCache;
+import org.geysermc.geyser.level.chunk.GeyserChunk;
 import org.geysermc.geyser.level.chunk.GeyserChunkSection;
+import org.geysermc.geyser.level.chunk.JavaChunkSection;
 import org.geysermc.geyser.level.chunk.bitarray.BitArray;
 import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkBlobCache;
 import org.geysermc.geyser.translator.level.BiomeTranslator;
 import org.geysermc.geyser.translator.level.block.entity.BedrockOnlyBlockEntity;
 import org.geysermc.geyser.translator.level.block.entity.BlockEntityTranslator;
@@ -72,7 +78,6 @@ import org.geysermc.geyser.util.ChunkUtils;
 import java.io.IOException;
 import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 import static org.geysermc.geyser.util.ChunkUtils.SERIALIZED_CHUNK_DATA;
 import static org.geysermc.geyser.util.ChunkUtils.indexYZXtoXZY;
@@ -89,14 +94,119 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         // Ensure that, if the player is using lower world heights, the position is not offset
         int yOffset = session.getChunkCache().getChunkMinY();
         int chunkSize = session.getChunkCache().getChunkHeightY();
-        int biomeGlobalPalette = session.getBiomeGlobalPalette();
 
         DataPalette[] javaChunks = new DataPalette[chunkSize];
+        // Taken from the encoded chunk cache if it is enabled, in which case these are shared with other sessions
+        JavaChunkSection[] javaSections = null;
+
+        EncodedChunkCache encodedChunkCache = session.getGeyser().getEncodedChunkCache();
+        EncodedChunk encodedChunk;
+        try {
+            if (encodedChunkCache == null) {
+                encodedChunk = encodeChunk(session, packet, javaChunks);
+            } else {
+                EncodedChunkCache.Key cacheKey = EncodedChunkCache.Key.from(session, packet);
+                EncodedChunkCache.Entry entry = encodedChunkCache.get(cacheKey, packet, session.getBiomeTranslations());
+                if (entry == null) {
+                    entry = encodedChunkCache.put(cacheKey, packet, encodeChunk(session, packet, javaChunks), javaChunks,
+                            session.getBiomeTranslations());
+                }
+                // If this chunk has already been translated for another player, there is no need to read it again
+                encodedChunk = entry.chunk();
+                javaSections = entry.javaSections();
+            }
+        } catch (IOException e) {
+            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
+            return;
+        }
+
+        boolean sharedSections = javaSections != null;
+        if (!sharedSections) {
+            javaSections = GeyserChunk.from(javaChunks, false).sections();
+        }
+
+        var erosionHandler = session.getErosionHandler().getAsActive();
+        if (erosionHandler != null) {
+            erosionHandler.getRegionCache().updateColumn(packet.getX(), packet.getZ(), session.getChunkCache().getChunkMinY(), javaSections);
+        } else if (sharedSections) {
+            session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaSections, packet.getChunkData());
+        } else {
+            session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks, packet.getChunkData());
+        }
+
+        // Lecterns and custom skulls are tracked per session
+        final List<BlockEntityInfo> lecterns = new ObjectArrayList<>();
+        final int chunkBlockX = packet.getX() << 4;
+        final int chunkBlockZ = packet.getZ() << 4;
+        for (BlockEntityInfo blockEntity : packet.getBlockEntities()) {
+            BlockEntityType type = blockEntity.getType();
+            if (type != BlockEntityType.LECTERN && type != BlockEntityType.SKULL) {
+                continue;
+            }
+            CompoundTag tag = blockEntity.getNbt();
+            int x = blockEntity.getX(); // Relative to chunk
+            int y = blockEntity.getY();
+            int z = blockEntity.getZ(); // Relative to chunk
+
+            JavaChunkSection section = javaSections[(y >> 4) - yOffset];
+            int blockState = section == null ? BlockStateValues.JAVA_AIR_ID : section.get(x, y & 0xF, z);
+
+            if (type == BlockEntityType.LECTERN) {
+                if (BlockStateValues.getLecternBookStates().get(blockState)) {
+                    lecterns.add(blockEntity);
+                }
+            } else if (session.getPreferencesCache().showCustomSkulls() && tag != null && tag.contains("SkullOwner")) {
+                // Check for custom skulls
+                SkullBlockEntityTranslator.translateSkull(session, tag, x + chunkBlockX, y, z + chunkBlockZ, blockState);
+            }
+        }
+
+        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
+        levelChunkPacket.setSubChunksLength(encodedChunk.sectionCount());
+        levelChunkPacket.setChunkX(packet.getX());
+        levelChunkPacket.setChunkZ(packet.getZ());
+
+        ChunkBlobCache blobCache = session.getChunkBlobCache();
+        if (blobCache.isEnabled()) {
+            // Each section and the biome data are sent as blobs that the client may already have cached
+            EncodedChunk.Blobs blobs = encodedChunk.blobs();
+            for (int i = 0; i < blobs.ids().length; i++) {
+                levelChunkPacket.getBlobIds().add(blobCache.cacheBlob(blobs.ids()[i], blobs.data()[i]));
+            }
+            // Everything that isn't a blob is still sent in the packet itself
+            levelChunkPacket.setCachingEnabled(true);
+            levelChunkPacket.setData(blobs.remainder());
+        } else {
+            levelChunkPacket.setCachingEnabled(false);
+            levelChunkPacket.setData(encodedChunk.data());
+        }
+        session.sendUpstreamPacket(levelChunkPacket);
+
+        if (!lecterns.isEmpty()) {
+            session.getGeyser().getWorldManager().sendLecternData(session, packet.getX(), packet.getZ(), lecterns);
+        }
+
+        for (ItemFrameEntity itemFrame : session.getItemFrameCache().getItemFramesInChunk(packet.getX(), packet.getZ())) {
+            // Update this item frame so it doesn't get lost in the abyss
+            itemFrame.updateBlock(true);
+        }
+    }
+
+    /**
+     * Translates the Java chunk into its Bedrock network form. Nothing in here may depend on anything specific to the
+     * session besides what is part of {@link EncodedChunkCache.Key}, as the result may be shared with other sessions.
+     *
+     * @param javaChunks filled in with the Java block data of each section
+     */
+    private static EncodedChunk encodeChunk(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, DataPalette[] javaChunks) throws IOException {
+        int yOffset = session.getChunkCache().getChunkMinY();
+        int chunkSize = session.getChunkCache().getChunkHeightY();
+        int biomeGlobalPalette = session.getBiomeGlobalPalette();
+
         DataPalette[] javaBiomes = new DataPalette[chunkSize];
 
         final BlockEntityInfo[] blockEntities = packet.getBlockEntities();
         final List<NbtMap> bedrockBlockEntities = new ObjectArrayList<>(blockEntities.length);
-        final List<BlockEntityInfo> lecterns = new ObjectArrayList<>();
 
         BitSet waterloggedPaletteIds = new BitSet();
         BitSet bedrockOnlyBlockEntityIds = new BitSet();
@@ -106,6 +216,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
         int sectionCount;
         byte[] payload;
+        int[] blobOffsets;
         ByteBuf byteBuf = null;
         GeyserChunkSection[] sections = new GeyserChunkSection[javaChunks.length - (yOffset + (bedrockDimension.minY() >> 4))];
 
@@ -190,47 +301,34 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     }
                 }
 
+                // Convert data array from YZX to XZY coordinate order
+                int[] paletteIndices = ChunkSectionTranscoder.readXZY(javaData);
+
                 // Add Bedrock-exclusive block entities
                 // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
                 // for no reason, as most sections will not contain any pistons or flower pots
                 if (!bedrockOnlyBlockEntityIds.isEmpty()) {
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
+                    for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+                        int paletteId = paletteIndices[xzy];
                         if (bedrockOnlyBlockEntityIds.get(paletteId)) {
                             bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
-                                    Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
+                                    Vector3i.from((packet.getX() << 4) + (xzy >> 8), ((sectionY + yOffset) << 4) + (xzy & 0xF), (packet.getZ() << 4) + ((xzy >> 4) & 0xF)),
                                     javaPalette.idToState(paletteId)
                             ));
                         }
                     }
                 }
 
-                BitArray bedrockData = BitArrayVersion.forBitsCeil(javaData.getBitsPerEntry()).createArray(BlockStorage.SIZE);
+                BitArray bedrockData = ChunkSectionTranscoder.write(paletteIndices, BitArrayVersion.forBitsCeil(javaData.getBitsPerEntry()));
                 BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
                 BlockStorage[] layers;
 
-                // Convert data array from YZX to XZY coordinate order
                 if (waterloggedPaletteIds.isEmpty()) {
-                    // No blocks are waterlogged, simply convert coordinate order
-                    // This could probably be optimized further...
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        bedrockData.set(indexYZXtoXZY(yzx), javaData.get(yzx));
-                    }
-
                     layers = new BlockStorage[]{ layer0 };
                 } else {
-                    // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
+                    // The section contains waterlogged blocks, we need to generate a V1 block storage for
                     // layer 1 with palette ID 1 indicating water
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-
-                        if (waterloggedPaletteIds.get(paletteId)) {
-                            layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
-                        }
-                    }
+                    int[] layer1Data = ChunkSectionTranscoder.writeMask(paletteIndices, waterloggedPaletteIds);
 
                     // V1 palette
                     IntList layer1Palette = IntList.of(
@@ -243,10 +341,6 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 sections[bedrockSectionY] = new GeyserChunkSection(layers);
             }
 
-            if (!session.getErosionHandler().isActive()) {
-                session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks);
-            }
-
             final int chunkBlockX = packet.getX() << 4;
             final int chunkBlockZ = packet.getZ() << 4;
             for (BlockEntityInfo blockEntity : blockEntities) {
@@ -275,17 +369,11 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                                     .putString("Name", "minecraft:written_book").build());
                     lecternTag.putInt("page", -1);
                     bedrockBlockEntities.add(lecternTag.build());
-                    lecterns.add(blockEntity);
                     continue;
                 }
 
                 BlockEntityTranslator blockEntityTranslator = BlockEntityUtils.getBlockEntityTranslator(type);
                 bedrockBlockEntities.add(blockEntityTranslator.getBlockEntityTag(type, x + chunkBlockX, y, z + chunkBlockZ, tag, blockState));
-
-                // Check for custom skulls
-                if (session.getPreferencesCache().showCustomSkulls() && type == BlockEntityType.SKULL && tag != null && tag.contains("SkullOwner")) {
-                    SkullBlockEntityTranslator.translateSkull(session, tag, x + chunkBlockX, y, z + chunkBlockZ, blockState);
-                }
             }
 
             // Find highest section
@@ -314,7 +402,10 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
             // Allocate output buffer
             byteBuf = ByteBufAllocator.DEFAULT.buffer(size);
+            // Track where each section and the biomes start, in case the client caches these as blobs
+            blobOffsets = new int[sectionCount + 2];
             for (int i = 0; i < sectionCount; i++) {
+                blobOffsets[i] = byteBuf.writerIndex();
                 GeyserChunkSection section = sections[i];
                 if (section != null) {
                     section.writeToNetwork(byteBuf);
@@ -322,6 +413,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     byteBuf.writeBytes(SERIALIZED_CHUNK_DATA);
                 }
             }
+            blobOffsets[sectionCount] = byteBuf.writerIndex();
 
             int dimensionOffset = bedrockDimension.minY() >> 4;
             for (int i = 0; i < biomeCount; i++) {
@@ -341,6 +433,8 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 BiomeTranslator.toNewBedrockBiome(session, javaBiomes[i + (dimensionOffset - yOffset)]).writeToNetwork(byteBuf);
             }
 
+            blobOffsets[sectionCount + 1] = byteBuf.writerIndex();
+
             byteBuf.writeByte(0); // Border blocks - Edu edition only
 
             // Encode tile entities into buffer
@@ -349,36 +443,18 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 nbtStream.writeTag(blockEntity);
             }
 
+            if (session.getChunkBlobCache().isEnabled()) {
+                // Copied straight into blobs, as that is what this session will send
+                return new EncodedChunk(EncodedChunk.Blobs.split(byteBuf, blobOffsets), sectionCount);
+            }
             // Copy data into byte[], because the protocol lib really likes things that are s l o w
             byteBuf.readBytes(payload = new byte[byteBuf.readableBytes()]);
-        } catch (IOException e) {
-            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
-            return;
         } finally {
             if (byteBuf != null) {
                 byteBuf.release(); // Release buffer to allow buffer pooling to be useful
             }
         }
 
-        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-        levelChunkPacket.setSubChunksLength(sectionCount);
-        levelChunkPacket.setCachingEnabled(false);
-        levelChunkPacket.setChunkX(packet.getX());
-        levelChunkPacket.setChunkZ(packet.getZ());
-        levelChunkPacket.setData(payload);
-        session.sendUpstreamPacket(levelChunkPacket);
-
-        if (!lecterns.isEmpty()) {
-            session.getGeyser().getWorldManager().sendLecternData(session, packet.getX(), packet.getZ(), lecterns);
-        }
-
-        for (Map.Entry<Vector3i, ItemFrameEntity> entry : session.getItemFrameCache().entrySet()) {
-            Vector3i position = entry.getKey();
-            if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
-                // Update this item frame so it doesn't get lost in the abyss
-                //TODO optimize
-                entry.getValue().updateBlock(true);
-            }
-        }
+        return new EncodedChunk(payload, sectionCount, blobOffsets);
     }
-}
\ No newline at end of file
+}
@@ -32,6 +32,8 @@ import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.protocol.bedrock.data.MapDecoration;
 import com.nukkitx.protocol.bedrock.data.MapTrackedObject;
 import org.geysermc.geyser.level.BedrockMapIcon;
+import org.geysermc.geyser.level.MapCanvasStore;
+import org.geysermc.geyser.level.MapCanvasStore.MapCanvas;
 import org.geysermc.geyser.level.MapColor;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
@@ -43,8 +45,14 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
 
     @Override
     public void translate(GeyserSession session, ClientboundMapItemDataPacket packet) {
+        if (session.isClosed()) {
+            // Its maps have already been released
+            return;
+        }
+
         com.nukkitx.protocol.bedrock.packet.ClientboundMapItemDataPacket mapItemDataPacket = new com.nukkitx.protocol.bedrock.packet.ClientboundMapItemDataPacket();
         boolean shouldStore = false;
+        MapCanvasStore canvasStore = session.getGeyser().getMapCanvasStore();
 
         mapItemDataPacket.setUniqueMapId(packet.getMapId());
         mapItemDataPacket.setDimensionId(DimensionUtils.javaToBedrock(session.getDimension()));
@@ -62,19 +70,35 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
             mapItemDataPacket.setHeight(data.getRows());
 
             // We have a full map image, this usually only happens on spawn for the initial image
-            if (mapItemDataPacket.getWidth() == 128 && mapItemDataPacket.getHeight() == 128) {
+            if (data.getColumns() == MapCanvasStore.SIZE && data.getRows() == MapCanvasStore.SIZE
+                    && data.getData().length == MapCanvasStore.SIZE * MapCanvasStore.SIZE) {
                 shouldStore = true;
-            }
 
-            // Every int entry is an ARGB color
-            int[] colors = new int[data.getData().length];
+                MapCanvas canvas = canvasStore.acquire(data.getData());
+                session.putMapCanvas(packet.getMapId(), canvas);
+                // Shared between every session showing this map
+                mapItemDataPacket.setColors(canvas.getColors());
+            } else {
+                // Every int entry is an ARGB color
+                int[] colors = new int[data.getData().length];
 
-            int idx = 0;
-            for (byte colorId : data.getData()) {
-                colors[idx++] = MapColor.fromId(colorId & 0xFF).getARGB();
-            }
+                int idx = 0;
+                for (byte colorId : data.getData()) {
+                    colors[idx++] = MapColor.fromId(colorId & 0xFF).getARGB();
+                }
+
+                mapItemDataPacket.setColors(colors);
 
-            mapItemDataPacket.setColors(colors);
+                var storedPacket = session.getStoredMaps().get(packet.getMapId());
+                MapCanvas oldCanvas = session.getMapCanvases().get(packet.getMapId());
+                if (storedPacket != null && oldCanvas != null) {
+                    // Keep our copy of the map up-to-date for when the client asks for the whole thing
+                    // acquireUpdated releases the old canvas itself
+                    MapCanvas canvas = canvasStore.acquireUpdated(oldCanvas, data);
+                    session.getMapCanvases().putAndMoveToLast(packet.getMapId(), canvas);
+                    storedPacket.setColors(canvas.getColors());
+                }
+            }
         }
 
         // Bedrock needs an entity id to display an icon
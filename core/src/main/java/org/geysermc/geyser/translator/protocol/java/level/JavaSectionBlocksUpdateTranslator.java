@@ -27,6 +27,7 @@ package org.geysermc.geyser.translator.protocol.java.level;
 
 import com.github.steveice10.mc.protocol.data.game.level.block.BlockChangeEntry;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundSectionBlocksUpdatePacket;
+import com.nukkitx.math.vector.Vector3i;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
@@ -36,8 +37,19 @@ public class JavaSectionBlocksUpdateTranslator extends PacketTranslator<Clientbo
 
     @Override
     public void translate(GeyserSession session, ClientboundSectionBlocksUpdatePacket packet) {
-        for (BlockChangeEntry entry : packet.getEntries()) {
-            session.getWorldCache().updateServerCorrectBlockState(entry.getPosition(), entry.getBlock());
+        BlockChangeEntry[] entries = packet.getEntries();
+        if (entries.length == 1) {
+            session.getWorldCache().updateServerCorrectBlockState(entries[0].getPosition(), entries[0].getBlock());
+            return;
         }
+
+        // Send the whole section in one packet, rather than two for every block
+        int[] blockStates = new int[entries.length];
+        Vector3i[] positions = new Vector3i[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            blockStates[i] = entries[i].getBlock();
+            positions[i] = entries[i].getPosition();
+        }
+        session.getWorldCache().updateServerCorrectBlockStates(blockStates, positions);
     }
 }
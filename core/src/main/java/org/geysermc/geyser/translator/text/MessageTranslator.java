@@ -27,6 +27,8 @@ package org.geysermc.geyser.translator.text;
 
 import com.github.steveice10.mc.protocol.data.DefaultComponentSerializer;
 import com.github.steveice10.mc.protocol.data.game.scoreboard.TeamColor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nukkitx.protocol.bedrock.packet.TextPacket;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TranslatableComponent;
@@ -39,6 +41,8 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.*;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class MessageTranslator {
     // These are used for handling the translations of the messages
@@ -57,6 +61,11 @@ public class MessageTranslator {
     // Reset character
     private static final String RESET = BASE + "r";
 
+    private static final Cache<ConvertedMessageKey, String> CONVERTED_MESSAGES = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .expireAfterAccess(5, TimeUnit.MINUTES)
+            .build();
+
     static {
         TEAM_COLORS.put(TeamColor.RESET, RESET);
 
@@ -103,6 +112,34 @@ public class MessageTranslator {
      * @return Parsed and formatted message for bedrock
      */
     public static String convertMessage(Component message, String locale) {
+        return convertCached(message, locale, () -> renderMessage(message, locale));
+    }
+
+    /**
+     * Returns a previously converted message if there is one, otherwise converts and caches it.
+     * Components compare structurally, so the same chat line, boss bar or scoreboard entry sent to many players is only
+     * converted once per locale.
+     *
+     * @param message the component or JSON string being converted
+     */
+    private static String convertCached(Object message, String locale, Supplier<String> converter) {
+        if (!MinecraftLocale.LOCALE_MAPPINGS.containsKey(locale.toLowerCase(Locale.ROOT))) {
+            // Until the locale has loaded, messages are translated into the default locale instead; don't hold on to that
+            return converter.get();
+        }
+
+        ConvertedMessageKey key = new ConvertedMessageKey(message, locale);
+        String converted = CONVERTED_MESSAGES.getIfPresent(key);
+        if (converted == null) {
+            converted = converter.get();
+            if (!converted.isEmpty()) {
+                CONVERTED_MESSAGES.put(key, converted);
+            }
+        }
+        return converted;
+    }
+
+    private static String renderMessage(Component message, String locale) {
         try {
             // Translate any components that require it
             message = RENDERER.render(message, locale);
@@ -146,7 +183,8 @@ public class MessageTranslator {
     }
 
     public static String convertMessage(String message, String locale) {
-        return convertMessage(GSON_SERIALIZER.deserialize(message), locale);
+        // Skip deserializing the JSON entirely if we've seen this exact message before
+        return convertCached(message, locale, () -> renderMessage(GSON_SERIALIZER.deserialize(message), locale));
     }
 
     public static String convertMessage(String message) {
@@ -317,6 +355,9 @@ public class MessageTranslator {
         return false;
     }
 
+    private record ConvertedMessageKey(Object message, String locale) {
+    }
+
     public static void init() {
         // no-op
     }
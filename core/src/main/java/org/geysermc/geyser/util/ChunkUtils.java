@@ -28,9 +28,11 @@ package org.geysermc.geyser.util;
 import com.nukkitx.math.GenericMath;
 import com.nukkitx.math.vector.Vector2i;
 import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.protocol.bedrock.data.BlockChangeEntry;
 import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
 import com.nukkitx.protocol.bedrock.packet.NetworkChunkPublisherUpdatePacket;
 import com.nukkitx.protocol.bedrock.packet.UpdateBlockPacket;
+import com.nukkitx.protocol.bedrock.packet.UpdateSubChunkBlocksPacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
@@ -57,6 +59,10 @@ public class ChunkUtils {
      */
     public static final byte[] SERIALIZED_CHUNK_DATA;
     public static final byte[] EMPTY_BIOME_DATA;
+    /**
+     * The flags of a block update that also updates neighbors and is sent over the network.
+     */
+    private static final int BLOCK_UPDATE_FLAGS = 0b11;
 
     static {
         ByteBuf byteBuf = Unpooled.buffer();
@@ -110,27 +116,74 @@ public class ChunkUtils {
      */
     public static void updateBlock(GeyserSession session, int blockState, Vector3i position) {
         updateBlockClientSide(session, blockState, position);
-        session.getChunkCache().updateBlock(position.getX(), position.getY(), position.getZ(), blockState);
+        updateCachedBlock(session, blockState, position);
     }
 
     /**
-     * Updates a block, but client-side only.
+     * Sends many block updates within one chunk section to the Bedrock client at once, then adds them to the cache
+     * like {@link #updateBlock(GeyserSession, int, Vector3i)}.
+     *
+     * @param blockStates the Java block state of each position
+     * @param positions the positions of the blocks, which must all be in the same chunk section
      */
-    public static void updateBlockClientSide(GeyserSession session, int blockState, Vector3i position) {
-        // Checks for item frames so they aren't tripped up and removed
-        ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
-        if (itemFrameEntity != null) {
-            if (blockState == JAVA_AIR_ID) { // Item frame is still present and no block overrides that; refresh it
-                itemFrameEntity.updateBlock(true);
-                // Still update the chunk cache with the new block if updateBlock is called
-                return;
+    public static void updateBlocks(GeyserSession session, int[] blockStates, Vector3i[] positions) {
+        if (positions.length == 0) {
+            return;
+        }
+        Vector3i sectionPosition = positions[0];
+
+        UpdateSubChunkBlocksPacket packet = new UpdateSubChunkBlocksPacket();
+        packet.setChunkX(sectionPosition.getX() >> 4);
+        packet.setChunkY(sectionPosition.getY() >> 4);
+        packet.setChunkZ(sectionPosition.getZ() >> 4);
+
+        boolean[] updated = new boolean[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            int blockState = blockStates[i];
+            Vector3i position = positions[i];
+            if (!prepareBlockUpdate(session, blockState, position)) {
+                continue;
+            }
+            updated[i] = true;
+
+            if (!BlockStateValues.isMovingPiston(blockState)) {
+                packet.getStandardBlocks().add(new BlockChangeEntry(position, session.getBlockMappings().getBedrockBlockId(blockState),
+                        BLOCK_UPDATE_FLAGS, 0, BlockChangeEntry.MessageType.NONE));
+                packet.getExtraBlocks().add(new BlockChangeEntry(position, getBedrockLiquidId(session, blockState),
+                        BLOCK_UPDATE_FLAGS, 0, BlockChangeEntry.MessageType.NONE));
             }
-            // Otherwise, let's still store our reference to the item frame, but let the new block take precedence for now
         }
 
-        if (BlockStateValues.getSkullVariant(blockState) == -1) {
-            // Skull is gone
-            session.getSkullCache().removeSkull(position);
+        if (!packet.getStandardBlocks().isEmpty()) {
+            session.sendUpstreamPacket(packet);
+        }
+
+        // Block entities can only be updated once the client knows about the new blocks
+        for (int i = 0; i < positions.length; i++) {
+            if (updated[i]) {
+                finishBlockUpdate(session, blockStates[i], positions[i]);
+            }
+            updateCachedBlock(session, blockStates[i], positions[i]);
+        }
+    }
+
+    private static void updateCachedBlock(GeyserSession session, int blockState, Vector3i position) {
+        session.getChunkCache().updateBlock(position.getX(), position.getY(), position.getZ(), blockState);
+
+        var erosionHandler = session.getErosionHandler().getAsActive();
+        if (erosionHandler != null) {
+            // Don't let an earlier lookup from this tick go stale
+            erosionHandler.getBlockCache().put(position.getX(), position.getY(), position.getZ(), blockState);
+            erosionHandler.getRegionCache().update(position.getX(), position.getY(), position.getZ(), blockState);
+        }
+    }
+
+    /**
+     * Updates a block, but client-side only.
+     */
+    public static void updateBlockClientSide(GeyserSession session, int blockState, Vector3i position) {
+        if (!prepareBlockUpdate(session, blockState, position)) {
+            return;
         }
 
         // Prevent moving_piston from being placed
@@ -149,14 +202,51 @@ public class ChunkUtils {
             UpdateBlockPacket waterPacket = new UpdateBlockPacket();
             waterPacket.setDataLayer(1);
             waterPacket.setBlockPosition(position);
-            if (BlockRegistries.WATERLOGGED.get().contains(blockState)) {
-                waterPacket.setRuntimeId(session.getBlockMappings().getBedrockWaterId());
-            } else {
-                waterPacket.setRuntimeId(session.getBlockMappings().getBedrockAirId());
-            }
+            waterPacket.setRuntimeId(getBedrockLiquidId(session, blockState));
             session.sendUpstreamPacket(waterPacket);
         }
 
+        finishBlockUpdate(session, blockState, position);
+    }
+
+    /**
+     * Handles what needs to happen before a block is sent to the client.
+     *
+     * @return false if the block should not be sent
+     */
+    private static boolean prepareBlockUpdate(GeyserSession session, int blockState, Vector3i position) {
+        // Checks for item frames so they aren't tripped up and removed
+        ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
+        if (itemFrameEntity != null) {
+            if (blockState == JAVA_AIR_ID) { // Item frame is still present and no block overrides that; refresh it
+                itemFrameEntity.updateBlock(true);
+                // Still update the chunk cache with the new block if updateBlock is called
+                return false;
+            }
+            // Otherwise, let's still store our reference to the item frame, but let the new block take precedence for now
+        }
+
+        if (BlockStateValues.getSkullVariant(blockState) == -1) {
+            // Skull is gone
+            session.getSkullCache().removeSkull(position);
+        }
+        return true;
+    }
+
+    /**
+     * @return the Bedrock block to place in the liquid layer of this block
+     */
+    private static int getBedrockLiquidId(GeyserSession session, int blockState) {
+        if (BlockRegistries.WATERLOGGED.get().contains(blockState)) {
+            return session.getBlockMappings().getBedrockWaterId();
+        }
+        return session.getBlockMappings().getBedrockAirId();
+    }
+
+    /**
+     * Handles what needs to happen after a block has been sent to the client.
+     */
+    private static void finishBlockUpdate(GeyserSession session, int blockState, Vector3i position) {
         BlockStateValues.getLecternBookStates().handleBlockChange(session, blockState, position);
 
         // Iterates through all Bedrock-only block entity translators and determines if a manual block entity packet
@@ -66,6 +66,10 @@ public class DimensionUtils {
         Entity player = session.getPlayerEntity();
 
         session.getChunkCache().clear();
+        var erosionHandler = session.getErosionHandler().getAsActive();
+        if (erosionHandler != null) {
+            erosionHandler.getRegionCache().clear();
+        }
         session.getEntityCache().removeAllEntities();
         session.getItemFrameCache().clear();
         if (session.getLecternCache() != null) {
@@ -30,6 +30,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.github.steveice10.mc.auth.service.MsaAuthenticationService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.shaded.json.JSONObject;
 import com.nimbusds.jose.shaded.json.JSONValue;
@@ -48,26 +50,46 @@ import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.auth.AuthData;
 import org.geysermc.geyser.session.auth.BedrockClientData;
+import org.geysermc.geyser.session.auth.LoginCryptoExecutor;
 import org.geysermc.geyser.text.ChatColor;
 import org.geysermc.geyser.text.GeyserLocale;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.interfaces.ECPublicKey;
-import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
 import java.util.Iterator;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 public class LoginEncryptionUtils {
+    /**
+     * Shown to players turned away because too many logins are waiting. Hardcoded in English until it is added to
+     * the languages repository.
+     */
+    private static final String SERVER_BUSY_MESSAGE = "The server is busy handling other logins. Please try again in a moment.";
+
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
     private static boolean HAS_SENT_ENCRYPTION_MESSAGE = false;
 
+    /**
+     * Intermediate chain links that have already been verified, until they expire. The Mojang-signed certificate in
+     * the middle of the chain is shared by many players, so this saves verifying the same signature over and over.
+     * The self-signed first link and the player's own leaf are always verified.
+     */
+    private static final Cache<VerifiedLinkKey, VerifiedLink> VERIFIED_LINKS = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
     private static boolean validateChainData(JsonNode data) throws Exception {
         if (data.size() != 3) {
             return false;
@@ -76,9 +98,11 @@ public class LoginEncryptionUtils {
         ECPublicKey lastKey = null;
         boolean mojangSigned = false;
         Iterator<JsonNode> iterator = data.iterator();
+        boolean first = true;
         while (iterator.hasNext()) {
             JsonNode node = iterator.next();
-            JWSObject jwt = JWSObject.parse(node.asText());
+            String token = node.asText();
+            JWSObject jwt = JWSObject.parse(token);
 
             // x509 cert is expected in every claim
             URI x5u = jwt.getHeader().getX509CertURL();
@@ -94,6 +118,27 @@ public class LoginEncryptionUtils {
                 return false;
             }
 
+            // The whole token is hashed, not just the signature, so a cached link can't vouch for a different payload
+            boolean cacheable = !first && iterator.hasNext();
+            first = false;
+            VerifiedLinkKey linkKey = cacheable ? new VerifiedLinkKey(hashToken(token), lastKey) : null;
+            if (linkKey != null) {
+                VerifiedLink verified = VERIFIED_LINKS.getIfPresent(linkKey);
+                if (verified != null) {
+                    if (verified.expiresAt() > System.currentTimeMillis()) {
+                        if (mojangSigned) {
+                            return false; // Same as below; a cached link is never the last one
+                        }
+                        if (lastKey.equals(EncryptionUtils.getMojangPublicKey())) {
+                            mojangSigned = true;
+                        }
+                        lastKey = verified.identityPublicKey();
+                        continue;
+                    }
+                    VERIFIED_LINKS.invalidate(linkKey);
+                }
+            }
+
             if (!EncryptionUtils.verifyJwt(jwt, lastKey)) {
                 return false;
             }
@@ -112,12 +157,68 @@ public class LoginEncryptionUtils {
             Object identityPublicKey = ((JSONObject) payload).get("identityPublicKey");
             Preconditions.checkArgument(identityPublicKey instanceof String, "identityPublicKey node is missing in chain");
             lastKey = EncryptionUtils.generateKey((String) identityPublicKey);
+
+            if (linkKey != null && ((JSONObject) payload).get("exp") instanceof Number expiry) {
+                // Don't trust the link for longer than it is valid
+                VERIFIED_LINKS.put(linkKey, new VerifiedLink(lastKey, expiry.longValue() * 1000L));
+            }
         }
 
         return mojangSigned;
     }
 
-    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket) {
+    private static String hashToken(String token) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private record VerifiedLinkKey(String tokenHash, ECPublicKey signer) {
+    }
+
+    /**
+     * @param identityPublicKey the key this link certifies, which signs the next link
+     * @param expiresAt when this link expires, in epoch milliseconds
+     */
+    private record VerifiedLink(ECPublicKey identityPublicKey, long expiresAt) {
+    }
+
+    /**
+     * Verifies the login and prepares encryption on the login threads, then finishes up on the session's event loop.
+     * The player is disconnected if too many logins are already waiting.
+     *
+     * @param onVerified run on the event loop once the login has been verified and encryption has started
+     */
+    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket, Runnable onVerified) {
+        LoginCryptoExecutor executor = session.getGeyser().getLoginCryptoExecutor();
+        boolean accepted = executor.execute(() -> {
+            EncryptionHandshake handshake;
+            try {
+                handshake = encryptPlayerConnection(session, loginPacket, executor);
+            } catch (Throwable e) {
+                session.getGeyser().getLogger().error("Unable to complete login", e);
+                // Otherwise the client waits on the loading screen until it times out
+                session.ensureInEventLoop(() -> session.disconnect("disconnectionScreen.internalError.cantConnect"));
+                return;
+            }
+
+            session.ensureInEventLoop(() -> {
+                if (session.isClosed()) {
+                    // Xbox validation failed, or the player left while their login was being verified
+                    return;
+                }
+                if (handshake != null) {
+                    handshake.start(session);
+                }
+                onVerified.run();
+            });
+        });
+
+        if (!accepted) {
+            session.disconnect(SERVER_BUSY_MESSAGE);
+        }
+    }
+
+    private static EncryptionHandshake encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket, LoginCryptoExecutor executor) {
         JsonNode certData;
         try {
             certData = JSON_MAPPER.readTree(loginPacket.getChainData().toByteArray());
@@ -130,10 +231,13 @@ public class LoginEncryptionUtils {
             throw new RuntimeException("Certificate data is not valid");
         }
 
-        encryptConnectionWithCert(session, loginPacket.getSkinData().toString(), certChainData);
+        return encryptConnectionWithCert(session, loginPacket.getSkinData().toString(), certChainData, executor);
     }
 
-    private static void encryptConnectionWithCert(GeyserSession session, String clientData, JsonNode certChainData) {
+    /**
+     * @return the handshake to start encryption with, or null if encryption can't be used or the player was disconnected
+     */
+    private static EncryptionHandshake encryptConnectionWithCert(GeyserSession session, String clientData, JsonNode certChainData, LoginCryptoExecutor executor) {
         try {
             GeyserImpl geyser = session.getGeyser();
 
@@ -142,8 +246,8 @@ public class LoginEncryptionUtils {
             geyser.getLogger().debug(String.format("Is player data valid? %s", validChain));
 
             if (!validChain && !session.getGeyser().getConfig().isEnableProxyConnections()) {
-                session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
-                return;
+                session.ensureInEventLoop(() -> session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account")));
+                return null;
             }
             JWSObject jwt = JWSObject.parse(certChainData.get(certChainData.size() - 1).asText());
             JsonNode payload = JSON_MAPPER.readTree(jwt.getPayload().toBytes());
@@ -176,7 +280,7 @@ public class LoginEncryptionUtils {
 
             if (EncryptionUtils.canUseEncryption()) {
                 try {
-                    LoginEncryptionUtils.startEncryptionHandshake(session, identityPublicKey);
+                    return LoginEncryptionUtils.prepareEncryptionHandshake(identityPublicKey, executor);
                 } catch (Throwable e) {
                     // An error can be thrown on older Java 8 versions about an invalid key
                     if (geyser.getConfig().isDebugMode()) {
@@ -188,24 +292,28 @@ public class LoginEncryptionUtils {
             } else {
                 sendEncryptionFailedMessage(geyser);
             }
+            return null;
         } catch (Exception ex) {
-            session.disconnect("disconnectionScreen.internalError.cantConnect");
             throw new RuntimeException("Unable to complete login", ex);
         }
     }
 
-    private static void startEncryptionHandshake(GeyserSession session, PublicKey key) throws Exception {
-        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
-        generator.initialize(new ECGenParameterSpec("secp384r1"));
-        KeyPair serverKeyPair = generator.generateKeyPair();
+    private static EncryptionHandshake prepareEncryptionHandshake(PublicKey key, LoginCryptoExecutor executor) throws Exception {
+        KeyPair serverKeyPair = executor.takeKeyPair();
 
         byte[] token = EncryptionUtils.generateRandomToken();
         SecretKey encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), key, token);
-        session.getUpstream().getSession().enableEncryption(encryptionKey);
+        return new EncryptionHandshake(encryptionKey, EncryptionUtils.createHandshakeJwt(serverKeyPair, token).serialize());
+    }
 
-        ServerToClientHandshakePacket packet = new ServerToClientHandshakePacket();
-        packet.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token).serialize());
-        session.sendUpstreamPacketImmediately(packet);
+    private record EncryptionHandshake(SecretKey encryptionKey, String jwt) {
+        void start(GeyserSession session) {
+            session.getUpstream().getSession().enableEncryption(encryptionKey);
+
+            ServerToClientHandshakePacket packet = new ServerToClientHandshakePacket();
+            packet.setJwt(jwt);
+            session.sendUpstreamPacketImmediately(packet);
+        }
     }
 
     private static void sendEncryptionFailedMessage(GeyserImpl geyser) {
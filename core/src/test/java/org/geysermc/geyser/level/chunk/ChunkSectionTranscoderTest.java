@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import org.geysermc.geyser.level.chunk.bitarray.BitArray;
+import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
+import org.geysermc.geyser.util.ChunkUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class ChunkSectionTranscoderTest {
+
+    @Test
+    public void testTranscodeMatchesPerEntryConversion() {
+        Random random = new Random(12345);
+        // Java indirect palettes use 4-8 bits; the others exercise every Bedrock version
+        for (int bits = 1; bits <= 16; bits++) {
+            BitStorage javaData = new BitStorage(bits, BlockStorage.SIZE);
+            int maxValue = (1 << bits) - 1;
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                javaData.set(yzx, random.nextInt(maxValue + 1));
+            }
+
+            BitArrayVersion version = BitArrayVersion.forBitsCeil(bits);
+            BitArray expected = version.createArray(BlockStorage.SIZE);
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                expected.set(ChunkUtils.indexYZXtoXZY(yzx), javaData.get(yzx));
+            }
+
+            int[] indices = ChunkSectionTranscoder.readXZY(javaData);
+            BitArray actual = ChunkSectionTranscoder.write(indices, version);
+            Assertions.assertEquals(version, actual.getVersion());
+            Assertions.assertArrayEquals(expected.getWords(), actual.getWords(), "Words differ for " + bits + " bits per entry");
+
+            BitSet paletteIds = new BitSet();
+            paletteIds.set(0);
+            paletteIds.set(maxValue);
+            BitArray expectedMask = BitArrayVersion.V1.createArray(BlockStorage.SIZE);
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                if (paletteIds.get(javaData.get(yzx))) {
+                    expectedMask.set(ChunkUtils.indexYZXtoXZY(yzx), 1);
+                }
+            }
+            Assertions.assertArrayEquals(expectedMask.getWords(), ChunkSectionTranscoder.writeMask(indices, paletteIds));
+        }
+    }
+}
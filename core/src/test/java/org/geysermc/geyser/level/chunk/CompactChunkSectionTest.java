@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CompactChunkSectionTest {
+
+    @Test
+    public void testMatchesDataPalette() {
+        Random random = new Random(54321);
+        // Grow past the point where the bits per entry have to increase several times
+        for (int stateCount : new int[] {2, 3, 17, 300, 5000}) {
+            DataPalette palette = DataPalette.createForChunk();
+            palette.getPalette().stateToId(0);
+            JavaChunkSection section = CompactChunkSection.singleValue(0);
+
+            for (int i = 0; i < 8192; i++) {
+                int x = random.nextInt(16);
+                int y = random.nextInt(16);
+                int z = random.nextInt(16);
+                int state = random.nextInt(stateCount);
+                palette.set(x, y, z, state);
+                section = section.set(x, y, z, state);
+            }
+
+            assertSameBlocks(palette, section);
+            assertSameBlocks(palette, CompactChunkSection.from(palette));
+        }
+    }
+
+    @Test
+    public void testSingleValueSectionsAreShared() {
+        JavaChunkSection section = CompactChunkSection.singleValue(1);
+        Assertions.assertSame(section, CompactChunkSection.singleValue(1));
+
+        JavaChunkSection modified = section.set(3, 4, 5, 2);
+        Assertions.assertNotSame(section, modified);
+        Assertions.assertEquals(1, section.get(3, 4, 5), "Shared section was modified");
+        Assertions.assertEquals(2, modified.get(3, 4, 5));
+        Assertions.assertEquals(1, modified.get(0, 0, 0));
+    }
+
+    private static void assertSameBlocks(DataPalette expected, JavaChunkSection actual) {
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    Assertions.assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019-2023 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.geysermc.geyser.GeyserLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SkinImageCacheTest {
+    private static final String FIRST_KEY = "skin:first";
+    private static final String SECOND_KEY = "skin:second";
+    private static final byte[] FIRST_DATA = new byte[] {1, 2, 3, 4, 5, 6, 7, 8};
+    private static final byte[] SECOND_DATA = new byte[] {9, 10, 11, 12};
+
+    @TempDir
+    Path folder;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = this.folder.resolve("images.dat");
+        SkinImageCache cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertNull(cache.get(FIRST_KEY));
+        Assertions.assertTrue(cache.put(FIRST_KEY, FIRST_DATA));
+        Assertions.assertTrue(cache.put(SECOND_KEY, SECOND_DATA));
+        Assertions.assertArrayEquals(FIRST_DATA, cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertArrayEquals(FIRST_DATA, cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+    }
+
+    @Test
+    public void testCutOffTail() throws IOException {
+        Path file = this.folder.resolve("images.dat");
+        SkinImageCache cache = new SkinImageCache(file, new SilentLogger());
+        cache.put(FIRST_KEY, FIRST_DATA);
+        cache.put(SECOND_KEY, SECOND_DATA);
+        cache.close();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertArrayEquals(FIRST_DATA, cache.get(FIRST_KEY));
+        Assertions.assertNull(cache.get(SECOND_KEY));
+        Assertions.assertEquals(recordLength(FIRST_KEY, FIRST_DATA), Files.size(file));
+
+        // Appending after the truncated record must still be readable
+        Assertions.assertTrue(cache.put(SECOND_KEY, SECOND_DATA));
+        cache.close();
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertArrayEquals(FIRST_DATA, cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+    }
+
+    @Test
+    public void testCorruptedRecord() throws IOException {
+        Path file = this.folder.resolve("images.dat");
+        SkinImageCache cache = new SkinImageCache(file, new SilentLogger());
+        cache.put(FIRST_KEY, FIRST_DATA);
+        cache.put(SECOND_KEY, SECOND_DATA);
+
+        // Flip the first byte of the first image
+        long dataPosition = Integer.BYTES + Long.BYTES + Short.BYTES + FIRST_KEY.length() + Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, dataPosition);
+            buffer.put(0, (byte) ~buffer.get(0));
+            buffer.rewind();
+            channel.write(buffer, dataPosition);
+        }
+
+        Assertions.assertNull(cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertNull(cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+    }
+
+    @Test
+    public void testLaterRecordReplacesEarlier() throws IOException {
+        Path file = this.folder.resolve("images.dat");
+        SkinImageCache cache = new SkinImageCache(file, new SilentLogger());
+        cache.put(FIRST_KEY, FIRST_DATA);
+        cache.put(FIRST_KEY, SECOND_DATA);
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(FIRST_KEY));
+        cache.close();
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(FIRST_KEY));
+        cache.close();
+    }
+
+    @Test
+    public void testExpire() throws IOException {
+        Path file = this.folder.resolve("images.dat");
+        SkinImageCache cache = new SkinImageCache(file, new SilentLogger());
+        cache.put(FIRST_KEY, FIRST_DATA);
+        cache.put(FIRST_KEY, SECOND_DATA);
+        cache.put(SECOND_KEY, SECOND_DATA);
+
+        // Nothing has expired, but the replaced record is dropped from the file
+        Assertions.assertEquals(0, cache.expire(Long.MAX_VALUE));
+        Assertions.assertEquals(recordLength(FIRST_KEY, SECOND_DATA) + recordLength(SECOND_KEY, SECOND_DATA), Files.size(file));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+        cache.close();
+
+        cache = new SkinImageCache(file, new SilentLogger());
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(FIRST_KEY));
+        Assertions.assertArrayEquals(SECOND_DATA, cache.get(SECOND_KEY));
+
+        // Everything was last used before now
+        Assertions.assertEquals(2, cache.expire(-1));
+        Assertions.assertEquals(0, Files.size(file));
+        Assertions.assertNull(cache.get(FIRST_KEY));
+        Assertions.assertNull(cache.get(SECOND_KEY));
+
+        Assertions.assertTrue(cache.put(SECOND_KEY, FIRST_DATA));
+        Assertions.assertArrayEquals(FIRST_DATA, cache.get(SECOND_KEY));
+        cache.close();
+    }
+
+    private static long recordLength(String key, byte[] data) {
+        return Integer.BYTES + Long.BYTES + Short.BYTES + key.getBytes(StandardCharsets.UTF_8).length
+                + Integer.BYTES + data.length + Long.BYTES;
+    }
+
+    private static final class SilentLogger implements GeyserLogger {
+        @Override
+        public void severe(String message) {
+        }
+
+        @Override
+        public void severe(String message, Throwable error) {
+        }
+
+        @Override
+        public void error(String message) {
+        }
+
+        @Override
+        public void error(String message, Throwable error) {
+        }
+
+        @Override
+        public void warning(String message) {
+        }
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void debug(String message) {
+        }
+
+        @Override
+        public void setDebug(boolean debug) {
+        }
+
+        @Override
+        public boolean isDebug() {
+            return false;
+        }
+    }
+}